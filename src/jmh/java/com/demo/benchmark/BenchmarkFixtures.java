@@ -0,0 +1,75 @@
+package com.demo.benchmark;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.Product;
+import com.demo.model.ProductSummary;
+import com.demo.model.ProductVersion;
+import com.demo.repository.ProductRepository;
+import com.demo.service.ProductCache;
+import com.demo.service.ProductService;
+import com.demo.support.ExecutionStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Product> products(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Product(new ObjectId().toHexString(), "Item-" + i, "Category-" + (i % 5)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Answers only the queries the product endpoints issue, straight from memory, so the
+     * benchmarks measure our pipelines rather than Mongo.
+     */
+    static ProductRepository repository(List<Product> products) {
+        Map<String, Product> byId = products.stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findAll":
+                            return Flux.fromIterable(products);
+                        case "findById":
+                            return Mono.justOrEmpty(byId.get((String) args[0]));
+                        case "findVersionById":
+                            return Mono.justOrEmpty(byId.get((String) args[0]))
+                                    .map(product -> new ProductVersion(product.getId(), product.getVersion(), product.getLastModified()));
+                        case "findAllByOrderByIdAsc":
+                            return project(Flux.fromIterable(products).take(((Pageable) args[0]).getPageSize()), (Class<?>) args[1]);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static ProductService productService(ProductRepository repository, ProductProperties productProperties) {
+        ProductService productService = new ProductService();
+        ReflectionTestUtils.setField(productService, "productRepository", repository);
+        ReflectionTestUtils.setField(productService, "productProperties", productProperties);
+        ReflectionTestUtils.setField(productService, "productCache", new ProductCache(productProperties, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(productService, "executionStrategy", new ExecutionStrategy(productProperties));
+        return productService;
+    }
+
+    private static Flux<?> project(Flux<Product> products, Class<?> type) {
+        return type == ProductSummary.class
+                ? products.map(product -> new ProductSummary(product.getId(), product.getName()))
+                : products;
+    }
+}
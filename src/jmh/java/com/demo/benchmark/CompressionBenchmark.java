@@ -0,0 +1,91 @@
+package com.demo.benchmark;
+
+import com.demo.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU cost per product of compressing newline-delimited product JSON, either as one write
+ * ({@code page}) or sync-flushed after every product ({@code element}) the way a streamed
+ * response is. The compressed size is printed at setup so ns per product can be weighed
+ * against bytes saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final int PRODUCTS = 1000;
+
+    @Param({"identity", "gzip", "deflate"})
+    private String encoding;
+
+    @Param({"page", "element"})
+    private String flush;
+
+    private List<byte[]> lines;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        lines = new ArrayList<>(PRODUCTS);
+        int raw = 0;
+        for (Product product : BenchmarkFixtures.products(PRODUCTS)) {
+            byte[] line = (objectMapper.writeValueAsString(product) + "\n").getBytes();
+            lines.add(line);
+            raw += line.length;
+        }
+        System.out.printf("%n%s/%s: %d products, raw=%d bytes, encoded=%d bytes%n", encoding, flush,
+                PRODUCTS, raw, compress().size());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public ByteArrayOutputStream compress() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        boolean syncFlush = "element".equals(flush);
+        try (OutputStream out = open(bytes, syncFlush)) {
+            for (byte[] line : lines) {
+                out.write(line);
+                if (syncFlush) {
+                    out.flush();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private OutputStream open(ByteArrayOutputStream bytes, boolean syncFlush) throws IOException {
+        switch (encoding) {
+            case "gzip":
+                return new GZIPOutputStream(bytes, 8192, syncFlush);
+            case "deflate":
+                return new DeflaterOutputStream(bytes, syncFlush);
+            default:
+                return bytes;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.demo.benchmark;
+
+import com.demo.codec.ProductMediaTypes;
+import com.demo.codec.ProductProtobufEncoder;
+import com.demo.model.CursorPage;
+import com.demo.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.util.MimeType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode cost per product for every negotiated encoding. The size of one product and of a
+ * 100-product page is printed at setup, so bytes per product can be compared with ns per product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"json", "smile", "cbor", "protobuf"})
+    private String encoding;
+
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    private Encoder<Object> encoder;
+    private MimeType mimeType;
+    private Product product;
+    private CursorPage<Product> page;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        switch (encoding) {
+            case "smile":
+                encoder = (Encoder<Object>) (Encoder<?>) new Jackson2SmileEncoder();
+                mimeType = ProductMediaTypes.APPLICATION_SMILE;
+                break;
+            case "cbor":
+                encoder = (Encoder<Object>) (Encoder<?>) new Jackson2CborEncoder(new ObjectMapper(new CBORFactory()));
+                mimeType = MediaType.APPLICATION_CBOR;
+                break;
+            case "protobuf":
+                encoder = new ProductProtobufEncoder();
+                mimeType = ProductMediaTypes.APPLICATION_PROTOBUF;
+                break;
+            default:
+                encoder = (Encoder<Object>) (Encoder<?>) new Jackson2JsonEncoder();
+                mimeType = MediaType.APPLICATION_JSON;
+        }
+        List<Product> products = BenchmarkFixtures.products(100);
+        product = products.get(0);
+        page = new CursorPage<>(products, products.get(99).getId());
+        System.out.printf("%n%s: product=%d bytes, page of 100=%d bytes%n", encoding,
+                encodeProduct().readableByteCount(), encodePage().readableByteCount());
+    }
+
+    @Benchmark
+    public DataBuffer encodeProduct() {
+        return encoder.encodeValue(product, bufferFactory, ResolvableType.forClass(Product.class), mimeType, Collections.emptyMap());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public DataBuffer encodePage() {
+        return encoder.encodeValue(page, bufferFactory, ResolvableType.forClass(CursorPage.class), mimeType, Collections.emptyMap());
+    }
+}
@@ -0,0 +1,65 @@
+package com.demo.benchmark;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.Product;
+import com.demo.service.ProductService;
+import com.demo.support.ExecutionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The operator chains behind /v1/products/stream and the paged listing under each
+ * {@link ProductProperties.ExecutionMode}. Run with {@code -bm sample} for latency percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionStrategyBenchmark {
+
+    @Param({"SAME_THREAD", "BOUNDED_ELASTIC", "PARALLEL"})
+    private ProductProperties.ExecutionMode mode;
+
+    @Param({"1000"})
+    private int products;
+
+    private ProductService productService;
+
+    @Setup
+    public void setup() {
+        ProductProperties productProperties = new ProductProperties();
+        productProperties.getExecution().setMode(mode);
+        productService = BenchmarkFixtures.productService(
+                BenchmarkFixtures.repository(BenchmarkFixtures.products(products)), productProperties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((ExecutionStrategy) ReflectionTestUtils.getField(productService, "executionStrategy")).dispose();
+    }
+
+    @Benchmark
+    public Product streamAll() {
+        return productService.streamAll().blockLast();
+    }
+
+    @Benchmark
+    public Object findPage() {
+        return productService.findPage(null, null, 100).block();
+    }
+}
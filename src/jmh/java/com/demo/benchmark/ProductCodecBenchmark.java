@@ -0,0 +1,76 @@
+package com.demo.benchmark;
+
+import com.demo.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductCodecBenchmark {
+
+    private static final ResolvableType PRODUCT = ResolvableType.forClass(Product.class);
+
+    @Param({"1000"})
+    private int streamSize;
+
+    private final Jackson2JsonEncoder encoder = new Jackson2JsonEncoder();
+    private final Jackson2JsonDecoder decoder = new Jackson2JsonDecoder();
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    private Product product;
+    private byte[] json;
+    private List<Product> products;
+
+    @Setup
+    public void setup() {
+        products = BenchmarkFixtures.products(streamSize);
+        product = products.get(0);
+        DataBuffer buffer = encoder.encodeValue(product, bufferFactory, PRODUCT, MediaType.APPLICATION_JSON, Collections.emptyMap());
+        json = new byte[buffer.readableByteCount()];
+        buffer.read(json);
+    }
+
+    @Benchmark
+    public DataBuffer encode() {
+        return encoder.encodeValue(product, bufferFactory, PRODUCT, MediaType.APPLICATION_JSON, Collections.emptyMap());
+    }
+
+    @Benchmark
+    public Object decode() {
+        return decoder.decode(bufferFactory.wrap(json), PRODUCT, MediaType.APPLICATION_JSON, Collections.emptyMap());
+    }
+
+    @Benchmark
+    public Long encodeStream() {
+        return encoder.encode(Flux.fromIterable(products), bufferFactory, PRODUCT, MediaType.APPLICATION_STREAM_JSON, Collections.emptyMap())
+                .doOnNext(DataBufferUtils::release)
+                .count()
+                .block();
+    }
+}
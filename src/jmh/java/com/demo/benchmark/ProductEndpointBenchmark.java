@@ -0,0 +1,106 @@
+package com.demo.benchmark;
+
+import com.demo.config.ProductProperties;
+import com.demo.controller.ProductController;
+import com.demo.model.CursorPage;
+import com.demo.router.ProductRouteHandler;
+import com.demo.service.ProductService;
+import com.demo.support.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same page request served by the annotated controller and by the functional route,
+ * both rendered to JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductEndpointBenchmark {
+
+    private static final HandlerStrategies STRATEGIES = HandlerStrategies.withDefaults();
+
+    private static final ServerResponse.Context CONTEXT = new ServerResponse.Context() {
+        @Override
+        public List<HttpMessageWriter<?>> messageWriters() {
+            return STRATEGIES.messageWriters();
+        }
+
+        @Override
+        public List<ViewResolver> viewResolvers() {
+            return Collections.emptyList();
+        }
+    };
+
+    @Param({"20", "100"})
+    private int limit;
+
+    private final EncoderHttpMessageWriter<Object> jsonWriter = new EncoderHttpMessageWriter<>(new Jackson2JsonEncoder());
+
+    private ProductController productController;
+    private ProductRouteHandler productRouteHandler;
+
+    @Setup
+    public void setup() {
+        ProductProperties productProperties = new ProductProperties();
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry());
+        ProductService productService = BenchmarkFixtures.productService(
+                BenchmarkFixtures.repository(BenchmarkFixtures.products(1000)), productProperties);
+
+        productController = new ProductController();
+        ReflectionTestUtils.setField(productController, "productService", productService);
+        ReflectionTestUtils.setField(productController, "pipelineMetrics", pipelineMetrics);
+        productRouteHandler = new ProductRouteHandler();
+        ReflectionTestUtils.setField(productRouteHandler, "productService", productService);
+        ReflectionTestUtils.setField(productRouteHandler, "pipelineMetrics", pipelineMetrics);
+    }
+
+    @Benchmark
+    public MockServerHttpResponse controllerGetProducts() {
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        jsonWriter.write(productController.getProducts(null, null, limit, null),
+                ResolvableType.forClass(CursorPage.class), MediaType.APPLICATION_JSON, response, Collections.emptyMap())
+                .block();
+        return response;
+    }
+
+    @Benchmark
+    public MockServerHttpResponse handlerFindAllProducts() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v2/products?limit=" + limit));
+        ServerRequest request = ServerRequest.create(exchange, STRATEGIES.messageReaders());
+        productRouteHandler.findAllProducts(request)
+                .flatMap(response -> response.writeTo(exchange, CONTEXT))
+                .block();
+        return exchange.getResponse();
+    }
+}
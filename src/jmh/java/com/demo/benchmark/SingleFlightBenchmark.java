@@ -0,0 +1,66 @@
+package com.demo.benchmark;
+
+import com.demo.support.SingleFlight;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A burst of concurrent reads for one hot id against a repository with 1 ms latency, with and
+ * without {@link SingleFlight}. The {@code repositoryCalls} counter is the Mongo QPS stand-in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SingleFlightBenchmark {
+
+    @Param({"100"})
+    private int burst;
+
+    @Param({"true", "false"})
+    private boolean singleFlight;
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Calls {
+        public long repositoryCalls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            repositoryCalls = 0;
+        }
+    }
+
+    @Benchmark
+    public String hotKeyBurst(Calls calls) {
+        Function<String, Mono<String>> repository = id -> Mono.fromCallable(() -> {
+            calls.repositoryCalls++;
+            return id;
+        }).delayElement(Duration.ofMillis(1));
+
+        return Flux.range(0, burst)
+                .flatMap(i -> singleFlight ? flights.execute("hot", repository) : repository.apply("hot"), burst)
+                .blockLast();
+    }
+}
@@ -1,12 +1,17 @@
 package com.demo;
 
+import com.demo.config.ProductProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import reactor.core.scheduler.Schedulers;
 
 @SpringBootApplication
+@EnableConfigurationProperties(ProductProperties.class)
 public class DemoApplication {
 
     public static void main(String[] args) {
+        Schedulers.enableMetrics();
         SpringApplication.run(DemoApplication.class, args);
     }
 
@@ -0,0 +1,175 @@
+package com.demo.codec;
+
+import com.demo.model.CursorPage;
+import com.demo.model.Product;
+import com.demo.model.ProductLookup;
+import com.demo.model.ProductSummary;
+import com.demo.support.FlushPolicy;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes products, summaries, lookups and cursor pages straight into buffers from the
+ * server's {@link DataBufferFactory} (pooled Netty buffers in production) with one
+ * {@link JsonGenerator} per response. Streams are written as newline-delimited JSON and grouped
+ * by the {@link FlushPolicy}; each group shares one buffer unless it grows past
+ * {@code batchSize} bytes. Each emitted buffer is one flush.
+ */
+public class ProductJsonStreamEncoder implements HttpMessageEncoder<Object> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_STREAM_JSON, MediaType.APPLICATION_JSON);
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = Collections.singletonList(MediaType.APPLICATION_STREAM_JSON);
+    private static final List<Class<?>> STREAMED_TYPES = List.of(Product.class, ProductSummary.class, ProductLookup.class, CursorPage.class);
+
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final FlushPolicy flushPolicy;
+
+    public ProductJsonStreamEncoder(ObjectMapper objectMapper, int batchSize, FlushPolicy flushPolicy) {
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.flushPolicy = flushPolicy;
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        if (mimeType != null && MediaType.APPLICATION_STREAM_JSON.isCompatibleWith(mimeType)) {
+            // other element types keep the default Jackson encoder
+            return STREAMED_TYPES.stream().anyMatch(it -> it.isAssignableFrom(type));
+        }
+        // pages are always a single value, so plain JSON never needs array framing here
+        return CursorPage.class.isAssignableFrom(type)
+                && mimeType != null && MediaType.APPLICATION_JSON.isCompatibleWith(mimeType) && mimeType.isConcrete();
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        return Flux.defer(() -> {
+            Batch batch = new Batch(bufferFactory);
+            return flushPolicy.apply(Flux.from(inputStream))
+                    .concatMapIterable(batch::writeAll)
+                    .doFinally(signal -> batch.release());
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        DataBuffer buffer = bufferFactory.allocateBuffer();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer.asOutputStream())) {
+            objectMapper.writeValue(generator, value);
+            return buffer;
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return STREAMING_MEDIA_TYPES;
+    }
+
+    /**
+     * The generator writes through this stream into whichever buffer is current, so its
+     * internal state and recycled buffers survive across the batches of one response.
+     */
+    private class Batch extends OutputStream {
+        private final DataBufferFactory bufferFactory;
+        private final JsonGenerator generator;
+        private DataBuffer current;
+
+        private Batch(DataBufferFactory bufferFactory) {
+            this.bufferFactory = bufferFactory;
+            this.current = bufferFactory.allocateBuffer(batchSize);
+            try {
+                this.generator = objectMapper.getFactory().createGenerator(this);
+                this.generator.setRootValueSeparator(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<DataBuffer> writeAll(List<?> values) {
+            List<DataBuffer> flushes = new ArrayList<>(1);
+            for (Object value : values) {
+                write(value);
+                if (current.readableByteCount() >= batchSize) {
+                    flushes.add(take());
+                }
+            }
+            if (current.readableByteCount() > 0) {
+                flushes.add(take());
+            }
+            return flushes;
+        }
+
+        private void write(Object value) {
+            try {
+                objectMapper.writeValue(generator, value);
+                generator.writeRaw('\n');
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private DataBuffer take() {
+            DataBuffer full = current;
+            current = bufferFactory.allocateBuffer(batchSize);
+            return full;
+        }
+
+        private void release() {
+            try {
+                generator.close();
+            } catch (IOException e) {
+                // nothing is pending at this point, closing only returns the generator's buffers
+            }
+            if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            current.write((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            current.write(bytes, offset, length);
+        }
+    }
+}
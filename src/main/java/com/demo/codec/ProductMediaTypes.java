@@ -0,0 +1,17 @@
+package com.demo.codec;
+
+import org.springframework.http.MediaType;
+
+public final class ProductMediaTypes {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+    public static final MediaType APPLICATION_STREAM_SMILE = MediaType.valueOf("application/stream+x-jackson-smile");
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.valueOf("application/x-protobuf");
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+    private ProductMediaTypes() {
+    }
+}
@@ -0,0 +1,149 @@
+package com.demo.codec;
+
+import com.demo.model.CursorPage;
+import com.demo.model.Product;
+import com.demo.model.ProductSummary;
+import com.google.protobuf.CodedOutputStream;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes products in the protobuf wire format described by {@code src/main/proto/product.proto}
+ * without generated message classes. A single value is written as a plain message, a stream as
+ * varint length-delimited messages.
+ */
+public class ProductProtobufEncoder implements HttpMessageEncoder<Object> {
+
+    private static final List<MimeType> MIME_TYPES = Collections.singletonList(ProductMediaTypes.APPLICATION_PROTOBUF);
+    private static final List<MediaType> STREAMING_MEDIA_TYPES = Collections.singletonList(ProductMediaTypes.APPLICATION_PROTOBUF);
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        return (Product.class.isAssignableFrom(type) || ProductSummary.class.isAssignableFrom(type)
+                || CursorPage.class.isAssignableFrom(type))
+                // without an explicit protobuf type this would be offered ahead of JSON for */*
+                && mimeType != null && ProductMediaTypes.APPLICATION_PROTOBUF.isCompatibleWith(mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        return Flux.from(inputStream).map(value -> wrap(bufferFactory, toBytes(value), true));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        return wrap(bufferFactory, toBytes(value), false);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return STREAMING_MEDIA_TYPES;
+    }
+
+    private DataBuffer wrap(DataBufferFactory bufferFactory, byte[] message, boolean delimited) {
+        int prefix = delimited ? CodedOutputStream.computeUInt32SizeNoTag(message.length) : 0;
+        DataBuffer buffer = bufferFactory.allocateBuffer(prefix + message.length);
+        if (delimited) {
+            byte[] size = new byte[prefix];
+            write(CodedOutputStream.newInstance(size), out -> out.writeUInt32NoTag(message.length));
+            buffer.write(size);
+        }
+        return buffer.write(message);
+    }
+
+    static byte[] toBytes(Object value) {
+        if (value instanceof CursorPage) {
+            return page((CursorPage<?>) value);
+        }
+        if (value instanceof ProductSummary) {
+            ProductSummary summary = (ProductSummary) value;
+            return product(summary.getId(), summary.getName(), null);
+        }
+        Product product = (Product) value;
+        return product(product.getId(), product.getName(), product.getCategory());
+    }
+
+    private static byte[] page(CursorPage<?> page) {
+        List<byte[]> content = new ArrayList<>(page.getContent().size());
+        int size = 0;
+        for (Object item : page.getContent()) {
+            byte[] bytes = toBytes(item);
+            content.add(bytes);
+            size += CodedOutputStream.computeByteArraySize(1, bytes);
+        }
+        if (page.getNext() != null) {
+            size += CodedOutputStream.computeStringSize(2, page.getNext());
+        }
+        byte[] message = new byte[size];
+        write(CodedOutputStream.newInstance(message), out -> {
+            for (byte[] bytes : content) {
+                out.writeByteArray(1, bytes);
+            }
+            if (page.getNext() != null) {
+                out.writeString(2, page.getNext());
+            }
+        });
+        return message;
+    }
+
+    private static byte[] product(String id, String name, String category) {
+        int size = stringSize(1, id) + stringSize(2, name) + stringSize(3, category);
+        byte[] message = new byte[size];
+        write(CodedOutputStream.newInstance(message), out -> {
+            writeString(out, 1, id);
+            writeString(out, 2, name);
+            writeString(out, 3, category);
+        });
+        return message;
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static void write(CodedOutputStream out, Writer writer) {
+        try {
+            writer.write(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface Writer {
+        void write(CodedOutputStream out) throws IOException;
+    }
+}
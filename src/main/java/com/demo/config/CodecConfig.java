@@ -0,0 +1,39 @@
+package com.demo.config;
+
+import com.demo.codec.ProductJsonStreamEncoder;
+import com.demo.codec.ProductProtobufEncoder;
+import com.demo.support.FlushPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Product encoders registered ahead of the defaults: batched JSON streaming, plus binary
+ * encodings for service-to-service clients. Smile is registered by the default codecs once
+ * jackson-dataformat-smile is on the classpath.
+ */
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductProperties productProperties;
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        ProductProperties.Encoding encoding = productProperties.getEncoding();
+        FlushPolicy flushPolicy = new FlushPolicy(encoding.getFlush().getMaxElements(),
+                encoding.getFlush().getMaxDelay(), encoding.getFlush().getIdleTimeout());
+        configurer.customCodecs().register(new ProductJsonStreamEncoder(objectMapper, (int) encoding.getBatchSize().toBytes(), flushPolicy));
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+        configurer.customCodecs().register(new ProductProtobufEncoder());
+    }
+}
@@ -0,0 +1,66 @@
+package com.demo.config;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * gzip/deflate for the product routes, negotiated from Accept-Encoding by Netty. Responses with
+ * a known length are only compressed above {@code minResponseSize}; streams have no length and are
+ * always compressed. Netty's zlib encoder sync-flushes every write, so each SSE event and
+ * stream+json flush still reaches the client as soon as it is written.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.compression", name = "enabled", matchIfMissing = true)
+public class CompressionConfig {
+    @Bean
+    public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> productCompression(ProductProperties productProperties) {
+        ProductProperties.Compression compression = productProperties.getCompression();
+        BiPredicate<HttpServerRequest, HttpServerResponse> predicate = paths(compression.getPaths())
+                .and(mimeTypes(compression.getMimeTypes()));
+        return factory -> factory.addServerCustomizers(server -> server
+                .compress((int) compression.getMinResponseSize().toBytes())
+                .compress(predicate));
+    }
+
+    private static BiPredicate<HttpServerRequest, HttpServerResponse> paths(List<String> paths) {
+        List<PathPattern> patterns = paths.stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList());
+        return (request, response) -> {
+            String uri = request.uri();
+            int query = uri.indexOf('?');
+            PathContainer path = PathContainer.parsePath(query < 0 ? uri : uri.substring(0, query));
+            return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+        };
+    }
+
+    private static BiPredicate<HttpServerRequest, HttpServerResponse> mimeTypes(List<String> mimeTypes) {
+        List<MimeType> allowed = mimeTypes.stream()
+                .map(MimeTypeUtils::parseMimeType)
+                .collect(Collectors.toList());
+        return (request, response) -> {
+            String contentType = response.responseHeaders().get(HttpHeaderNames.CONTENT_TYPE);
+            if (StringUtils.isEmpty(contentType)) {
+                return false;
+            }
+            MimeType mimeType = MimeTypeUtils.parseMimeType(contentType);
+            return allowed.stream().anyMatch(candidate -> candidate.isCompatibleWith(mimeType));
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.demo.config;
+
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Applies {@code product.mongo.*} on top of the connection Boot builds from
+ * {@code spring.data.mongodb.*}, and publishes {@code mongodb.driver.pool.*} gauges for every
+ * server the driver connects to.
+ */
+@Configuration
+public class MongoConfig {
+    @Bean
+    public MongoClientSettingsBuilderCustomizer productMongoSettings(ProductProperties productProperties, MeterRegistry meterRegistry) {
+        ProductProperties.Mongo mongo = productProperties.getMongo();
+        return builder -> {
+            builder.applyToConnectionPoolSettings(pool -> pool
+                    .minSize(mongo.getMinPoolSize())
+                    .maxSize(mongo.getMaxPoolSize())
+                    .maxWaitQueueSize(mongo.getMaxWaitQueueSize())
+                    .maxWaitTime(mongo.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                    .maxConnectionIdleTime(mongo.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                    .addConnectionPoolListener(new MongoMetricsConnectionPoolListener(meterRegistry)));
+            builder.applyToSocketSettings(socket -> socket
+                    .connectTimeout((int) mongo.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .readTimeout((int) mongo.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS));
+            if (StringUtils.hasText(mongo.getReadPreference())) {
+                builder.readPreference(ReadPreference.valueOf(mongo.getReadPreference()));
+            }
+            if (StringUtils.hasText(mongo.getWriteConcern())) {
+                builder.writeConcern(writeConcern(mongo.getWriteConcern()));
+            }
+            if (!mongo.getCompressors().isEmpty()) {
+                builder.compressorList(compressors(mongo.getCompressors()));
+            }
+        };
+    }
+
+    private static WriteConcern writeConcern(String name) {
+        WriteConcern writeConcern = WriteConcern.valueOf(name);
+        if (writeConcern == null) {
+            throw new IllegalArgumentException("Unknown write concern: " + name);
+        }
+        return writeConcern;
+    }
+
+    private static List<MongoCompressor> compressors(List<String> names) {
+        return names.stream()
+                .map(name -> {
+                    switch (name.toLowerCase()) {
+                        case "snappy":
+                            // the driver only declares snappy-java as optional, so the pom brings it in
+                            return MongoCompressor.createSnappyCompressor();
+                        case "zlib":
+                            return MongoCompressor.createZlibCompressor();
+                        default:
+                            // zstd arrives with the 4.x driver
+                            throw new IllegalArgumentException("Unsupported compressor: " + name);
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,191 @@
+package com.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "product")
+public class ProductProperties {
+
+    public enum Overflow {
+        DROP, LATEST, BUFFER
+    }
+
+    public enum ExecutionMode {
+        SAME_THREAD, BOUNDED_ELASTIC, PARALLEL
+    }
+
+    public enum Durability {
+        ACK_AFTER_FLUSH, ACK_ON_ENQUEUE
+    }
+
+    public enum SeedMode {
+        IF_EMPTY, REPLACE
+    }
+
+    private final Page page = new Page();
+    private final Cache cache = new Cache();
+    private final Bulk bulk = new Bulk();
+    private final Import imports = new Import();
+    private final Changes changes = new Changes();
+    private final Execution execution = new Execution();
+    private final Diagnostics diagnostics = new Diagnostics();
+    private final Limits limits = new Limits();
+    private final Encoding encoding = new Encoding();
+    private final Compression compression = new Compression();
+    private final BatchGet batchGet = new BatchGet();
+    private final WriteBehind writeBehind = new WriteBehind();
+    private final Mongo mongo = new Mongo();
+    private final Seed seed = new Seed();
+    private final Startup startup = new Startup();
+
+    @Data
+    public static class Page {
+        private int defaultSize = 20;
+        private int maxSize = 100;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofMinutes(5);
+        private long maximumSize = 10_000;
+    }
+
+    @Data
+    public static class Bulk {
+        private int batchSize = 1000;
+        private int concurrency = 4;
+    }
+
+    @Data
+    public static class Import {
+        private int concurrency = 16;
+        private int progressInterval = 1000;
+        private DataSize maxLineSize = DataSize.ofKilobytes(256);
+    }
+
+    @Data
+    public static class Changes {
+        private Overflow overflow = Overflow.BUFFER;
+        private int bufferSize = 256;
+        private Duration evictAfter = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Execution {
+        private ExecutionMode mode = ExecutionMode.SAME_THREAD;
+        private int prefetch = 256;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private String threadNamePrefix = "product";
+    }
+
+    @Data
+    public static class Diagnostics {
+        private int sampleRate = 100;
+        private Duration slowThreshold = Duration.ofMillis(500);
+    }
+
+    @Data
+    public static class Limits {
+        private boolean enabled = true;
+        private List<String> routes = new ArrayList<>(List.of("/v1/products/**", "/v2/products/**"));
+        private List<String> trustedProxies = new ArrayList<>();
+        private int maxClients = 100_000;
+        private final Bucket client = new Bucket(200, 100);
+        private final Bucket route = new Bucket(5000, 2000);
+        private final Concurrency concurrency = new Concurrency();
+    }
+
+    @Data
+    public static class Bucket {
+        private long capacity;
+        private long refillPerSecond;
+
+        public Bucket(long capacity, long refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    @Data
+    public static class Concurrency {
+        private int initial = 64;
+        private int min = 8;
+        private int max = 512;
+        private Duration latencyTarget = Duration.ofMillis(200);
+        private double backoff = 0.9;
+        private List<String> exclude = new ArrayList<>(List.of("/v1/products/stream", "/v1/products/changes/**",
+                "/v1/products/bulk", "/v1/products/import"));
+    }
+
+    @Data
+    public static class Encoding {
+        private DataSize batchSize = DataSize.ofKilobytes(8);
+        private final Flush flush = new Flush();
+    }
+
+    @Data
+    public static class Flush {
+        private int maxElements = 256;
+        private Duration maxDelay = Duration.ofMillis(50);
+        private Duration idleTimeout = Duration.ofMillis(1);
+    }
+
+    @Data
+    public static class Compression {
+        private boolean enabled = true;
+        private DataSize minResponseSize = DataSize.ofKilobytes(2);
+        private List<String> mimeTypes = new ArrayList<>(List.of("application/json", "application/stream+json", "text/event-stream"));
+        private List<String> paths = new ArrayList<>(List.of("/v1/products/**", "/v2/products/**"));
+    }
+
+    @Data
+    public static class BatchGet {
+        private int maxIds = 100;
+    }
+
+    @Data
+    public static class WriteBehind {
+        private boolean enabled = false;
+        private int maxPending = 1000;
+        private Duration flushInterval = Duration.ofMillis(100);
+        private Durability durability = Durability.ACK_AFTER_FLUSH;
+    }
+
+    @Data
+    public static class Mongo {
+        private int minPoolSize = 10;
+        private int maxPoolSize = 100;
+        private int maxWaitQueueSize = 500;
+        private Duration maxWaitTime = Duration.ofSeconds(5);
+        private Duration maxConnectionIdleTime = Duration.ofMinutes(1);
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration readTimeout = Duration.ZERO;
+        private String readPreference;
+        private String writeConcern;
+        private List<String> compressors = new ArrayList<>();
+    }
+
+    @Data
+    public static class Seed {
+        private boolean enabled = true;
+        private SeedMode mode = SeedMode.IF_EMPTY;
+        private int count = 10;
+        private int categories = 5;
+        private int batchSize = 1000;
+        private int concurrency = 4;
+    }
+
+    @Data
+    public static class Startup {
+        private boolean report = true;
+        private int reportTop = 20;
+        private boolean deferInitialization = false;
+    }
+}
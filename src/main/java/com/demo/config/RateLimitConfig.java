@@ -0,0 +1,16 @@
+package com.demo.config;
+
+import com.demo.filter.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "product.limits", name = "enabled", matchIfMissing = true)
+public class RateLimitConfig {
+    @Bean
+    public RateLimitFilter rateLimitFilter(ProductProperties productProperties, MeterRegistry meterRegistry) {
+        return new RateLimitFilter(productProperties.getLimits(), meterRegistry);
+    }
+}
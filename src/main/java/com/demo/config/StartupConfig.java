@@ -0,0 +1,51 @@
+package com.demo.config;
+
+import com.demo.support.StartupTimings;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.WebFilter;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Startup timing report, plus {@code startup.ready.time} and {@code startup.first.request.time}
+ * gauges (milliseconds since JVM start; the latter when the first non-actuator request completes)
+ * so scale-out cold starts can be compared across builds.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.startup", name = "report", matchIfMissing = true)
+public class StartupConfig {
+    @Bean
+    public static StartupTimings startupTimings(Environment environment) {
+        // post-processors are created before @ConfigurationProperties beans, so bind the one value directly
+        int top = Binder.get(environment).bind("product.startup.report-top", Integer.class).orElse(20);
+        return new StartupTimings(top);
+    }
+
+    @Bean
+    public WebFilter firstRequestTimer(StartupTimings startupTimings, MeterRegistry meterRegistry) {
+        AtomicLong firstRequest = new AtomicLong(-1);
+        Gauge.builder("startup.ready.time", startupTimings,
+                timings -> timings.getReadyTime() == null ? Double.NaN : timings.getReadyTime().toMillis())
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("startup.first.request.time", firstRequest, it -> it.get() < 0 ? Double.NaN : it.get())
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return (exchange, chain) -> {
+            // health and readiness probes arrive long before real traffic, so they don't count
+            if (firstRequest.get() >= 0 || exchange.getRequest().getPath().pathWithinApplication().value().startsWith("/actuator")) {
+                return chain.filter(exchange);
+            }
+            // the first response that is served, not the first that arrives
+            return chain.filter(exchange)
+                    .doFinally(signal -> firstRequest.compareAndSet(-1, ManagementFactory.getRuntimeMXBean().getUptime()));
+        };
+    }
+}
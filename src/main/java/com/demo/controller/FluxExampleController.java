@@ -1,5 +1,7 @@
 package com.demo.controller;
 
+import com.demo.support.SignalSampler;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
@@ -10,17 +12,18 @@ import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON_VALUE;
 
 @RestController
 public class FluxExampleController {
+    @Autowired
+    private SignalSampler signalSampler;
+
     @GetMapping("/flux")
     public Flux<Integer> getNumbers() {
-        return Flux.just(1, 2, 3, 4, 5)
-                .delayElements(Duration.ofSeconds(1))
-                .log();
+        return signalSampler.sample("flux", Flux.just(1, 2, 3, 4, 5)
+                .delayElements(Duration.ofSeconds(1)));
     }
 
     @GetMapping(value = "/fluxStream", produces = {APPLICATION_STREAM_JSON_VALUE})
     public Flux<Integer> getNumberStream() {
-        return Flux.just(1, 2, 3, 4, 5)
-                .delayElements(Duration.ofSeconds(1))
-                .log();
+        return signalSampler.sample("fluxStream", Flux.just(1, 2, 3, 4, 5)
+                .delayElements(Duration.ofSeconds(1)));
     }
 }
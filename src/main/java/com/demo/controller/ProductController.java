@@ -1,49 +1,139 @@
 package com.demo.controller;
 
+import com.demo.codec.ProductMediaTypes;
+import com.demo.config.ProductProperties;
+import com.demo.model.BulkResult;
+import com.demo.model.CursorPage;
+import com.demo.model.ImportProgress;
 import com.demo.model.Product;
-import com.demo.repository.ProductRepository;
+import com.demo.model.ProductChange;
+import com.demo.model.ProductLookup;
+import com.demo.model.ProductVersion;
+import com.demo.service.ProductBulkWriter;
+import com.demo.service.ProductChangeStream;
+import com.demo.service.ProductImporter;
+import com.demo.service.ProductService;
+import com.demo.service.ProductWriteBehind;
+import com.demo.support.FanOutHub;
+import com.demo.support.PipelineMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("v1")
 public class ProductController {
 
     @Autowired
-    private ProductRepository productRepository;
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkWriter productBulkWriter;
+
+    @Autowired
+    private ProductImporter productImporter;
+
+    @Autowired
+    private ProductChangeStream productChangeStream;
+
+    @Autowired
+    private ProductWriteBehind productWriteBehind;
+
+    @Autowired
+    private ProductProperties productProperties;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
 
-    @GetMapping("/products")
-    public Flux<Product> getProducts() {
-        return productRepository.findAll();
+    @GetMapping(value = "/products", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            ProductMediaTypes.APPLICATION_SMILE_VALUE, ProductMediaTypes.APPLICATION_PROTOBUF_VALUE})
+    public Mono<CursorPage<?>> getProducts(@RequestParam(value = "category", required = false) String category,
+                                           @RequestParam(value = "after", required = false) String after,
+                                           @RequestParam(value = "limit", required = false) Integer limit,
+                                           @RequestParam(value = "fields", required = false) String fields) {
+        return pipelineMetrics.instrument("v1.products.list",
+                productService.findPage(category, after, limit, StringUtils.commaDelimitedListToSet(fields)));
     }
 
-    @GetMapping(value = "/products/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE})
+    @GetMapping(value = "/products/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE,
+            ProductMediaTypes.APPLICATION_STREAM_SMILE_VALUE, ProductMediaTypes.APPLICATION_PROTOBUF_VALUE})
     public Flux<Product> getProductsAsStream() {
-        //return productRepository.findAll().publishOn(Schedulers.parallel()).delayElements(Duration.ofSeconds(1));
-        return productRepository.findAll().publishOn(Schedulers.parallel());
+        return pipelineMetrics.instrument("v1.products.stream", productService.streamAll());
     }
 
-    @GetMapping("/products/{id}")
-    public Mono<Product> getProduct(@PathVariable("id") String id) {
-        return productRepository.findById(id);
+    @GetMapping(value = "/products/changes", produces = {MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ProductChange> getProductChanges(@RequestParam(value = "overflow", required = false) ProductProperties.Overflow overflow,
+                                                 @RequestParam(value = "buffer", required = false) Integer buffer) {
+        ProductProperties.Changes changes = productProperties.getChanges();
+        return pipelineMetrics.instrument("v1.products.changes", productChangeStream.subscribe(
+                overflow == null ? changes.getOverflow() : overflow,
+                buffer == null ? changes.getBufferSize() : Math.max(1, buffer)));
+    }
+
+    @GetMapping("/products/changes/connections")
+    public Flux<FanOutHub.ConnectionStats> getProductChangeConnections() {
+        return Flux.fromIterable(productChangeStream.connections());
+    }
+
+    @GetMapping(value = "/products/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            ProductMediaTypes.APPLICATION_SMILE_VALUE, ProductMediaTypes.APPLICATION_PROTOBUF_VALUE})
+    public Mono<Product> getProduct(@PathVariable("id") String id, ServerWebExchange exchange) {
+        // the version lookup decides 304 before the document itself is read
+        return pipelineMetrics.instrument("v1.products.get", productService.findVersion(id)
+                .filter(version -> !notModified(exchange, version))
+                .flatMap(version -> productService.findById(id)));
     }
 
     @PostMapping("/products")
     public Mono<Product> save(@RequestBody Product product) {
-        return productRepository.save(product);
+        return pipelineMetrics.instrument("v1.products.save", productService.save(product));
+    }
+
+    @PostMapping(value = "/products/batch-get",
+            produces = {MediaType.APPLICATION_STREAM_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<ProductLookup> batchGet(@RequestBody List<String> ids) {
+        return pipelineMetrics.instrument("v1.products.batch-get", productService.findAllById(ids));
+    }
+
+    @PostMapping(value = "/products/bulk",
+            consumes = {MediaType.APPLICATION_STREAM_JSON_VALUE},
+            produces = {MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<BulkResult> bulk(@RequestBody Flux<Product> products,
+                                 @RequestParam(value = "mode", defaultValue = "INSERT") ProductBulkWriter.Mode mode,
+                                 @RequestParam(value = "ordered", defaultValue = "true") boolean ordered) {
+        return pipelineMetrics.instrument("v1.products.bulk", productBulkWriter.write(products, mode, ordered));
+    }
+
+    @PostMapping(value = "/products/import", produces = {MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<ImportProgress> importProducts(ServerHttpRequest request) {
+        return pipelineMetrics.instrument("v1.products.import", productImporter.importProducts(request.getBody()));
     }
 
     @PutMapping("/products")
     public Mono<Product> update(@RequestBody Product product) {
-        return productRepository.save(product);
+        if (productWriteBehind.isEnabled() && product.getId() != null) {
+            return pipelineMetrics.instrument("v1.products.update", productWriteBehind.enqueue(product));
+        }
+        return pipelineMetrics.instrument("v1.products.update", productService.save(product));
     }
 
     @DeleteMapping("/products/{id}")
     public Mono<Void> delete(@PathVariable("id") String id) {
-        return productRepository.deleteById(id);
+        return pipelineMetrics.instrument("v1.products.delete", productService.deleteById(id));
+    }
+
+    private static boolean notModified(ServerWebExchange exchange, ProductVersion version) {
+        exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+        return version.getLastModified() == null
+                ? exchange.checkNotModified(version.eTag())
+                : exchange.checkNotModified(version.eTag(), version.getLastModified());
     }
 }
@@ -0,0 +1,48 @@
+package com.demo.filter;
+
+/**
+ * AIMD concurrency limit: every fast completion grows the limit by {@code 1/limit}, so roughly
+ * one slot per full window, and every slow or failed one shrinks it by {@code backoff}.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int min;
+    private final int max;
+    private final long latencyTargetNanos;
+    private final double backoff;
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimit(int initial, int min, int max, long latencyTargetNanos, double backoff) {
+        this.min = min;
+        this.max = max;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoff = backoff;
+        this.limit = initial;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos, boolean failed) {
+        inFlight--;
+        if (failed || latencyNanos > latencyTargetNanos) {
+            limit = Math.max(min, limit * backoff);
+        } else {
+            limit = Math.min(max, limit + 1 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,141 @@
+package com.demo.filter;
+
+import com.demo.config.ProductProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sheds load on the product routes before it reaches Mongo. A request has to get a token from
+ * its client's bucket and from its route's bucket, and then a slot in the adaptive concurrency
+ * limit. Otherwise it is answered with 429 straight away. Streams, bulk writes and imports skip
+ * the concurrency limit: they run far past its latency target and would shrink it for every
+ * other request.
+ */
+public class RateLimitFilter implements WebFilter {
+
+    private final Map<PathPattern, TokenBucket> routes;
+    private final Set<String> trustedProxies;
+    private final List<PathPattern> unlimitedConcurrency;
+    private final LoadingCache<String, TokenBucket> clients;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Counter shedByClient;
+    private final Counter shedByRoute;
+    private final Counter shedByConcurrency;
+
+    public RateLimitFilter(ProductProperties.Limits limits, MeterRegistry meterRegistry) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        ProductProperties.Bucket route = limits.getRoute();
+        ProductProperties.Bucket client = limits.getClient();
+        ProductProperties.Concurrency concurrency = limits.getConcurrency();
+
+        // most specific first, so a narrower route gets its own bucket instead of the catch-all's
+        this.routes = limits.getRoutes().stream()
+                .map(parser::parse)
+                .sorted(PathPattern.SPECIFICITY_COMPARATOR)
+                .collect(Collectors.toMap(Function.identity(), it -> new TokenBucket(route.getCapacity(), route.getRefillPerSecond()),
+                        (first, second) -> first, LinkedHashMap::new));
+        this.trustedProxies = limits.getTrustedProxies().stream()
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        this.unlimitedConcurrency = concurrency.getExclude().stream()
+                .map(parser::parse)
+                .collect(Collectors.toList());
+        // idle clients are forgotten, and the size cap holds even when many addresses arrive at once
+        this.clients = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .maximumSize(limits.getMaxClients())
+                .build(key -> new TokenBucket(client.getCapacity(), client.getRefillPerSecond()));
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(concurrency.getInitial(), concurrency.getMin(),
+                concurrency.getMax(), concurrency.getLatencyTarget().toNanos(), concurrency.getBackoff());
+
+        this.shedByClient = shed(meterRegistry, "client");
+        this.shedByRoute = shed(meterRegistry, "route");
+        this.shedByConcurrency = shed(meterRegistry, "concurrency");
+        Gauge.builder("limits.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit).register(meterRegistry);
+        Gauge.builder("limits.concurrency.inflight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight).register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        PathPattern route = routes.keySet().stream().filter(it -> it.matches(path)).findFirst().orElse(null);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        String routeClient = route.getPatternString() + "|" + clientOf(exchange.getRequest());
+        TokenBucket clientBucket = clients.get(routeClient);
+        if (!clientBucket.tryAcquire()) {
+            return reject(exchange, shedByClient);
+        }
+        if (!routes.get(route).tryAcquire()) {
+            // the client is not charged for a request the shared route bucket turned away
+            clientBucket.release();
+            return reject(exchange, shedByRoute);
+        }
+        if (unlimitedConcurrency.stream().anyMatch(it -> it.matches(path))) {
+            return chain.filter(exchange);
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            return reject(exchange, shedByConcurrency);
+        }
+        long started = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> concurrencyLimit.release(System.nanoTime() - started, signal == SignalType.ON_ERROR));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, Counter counter) {
+        counter.increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set("Retry-After", "1");
+        return response.setComplete();
+    }
+
+    /**
+     * The remote address, unless it is a trusted proxy. Then X-Forwarded-For is read from the
+     * right and the first hop that is not a trusted proxy is the client; anything left of it was
+     * written by the client and could be forged.
+     */
+    private String clientOf(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        String client = remote == null ? "unknown" : remote.getHostString();
+        if (!trustedProxies.contains(client)) {
+            return client;
+        }
+        List<String> hops = request.getHeaders().getValuesAsList("X-Forwarded-For");
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i).trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return client;
+    }
+
+    private static Counter shed(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("limits.shed").tag("reason", reason).register(meterRegistry);
+    }
+}
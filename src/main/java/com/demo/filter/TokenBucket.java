@@ -0,0 +1,32 @@
+package com.demo.filter;
+
+public class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilled;
+
+    public TokenBucket(long capacity, long refillPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1e9;
+        this.tokens = capacity;
+        this.refilled = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilled) * tokensPerNano);
+        refilled = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /** Gives back a token taken by {@link #tryAcquire()} for a request that was rejected elsewhere. */
+    public synchronized void release() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
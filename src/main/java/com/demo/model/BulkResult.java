@@ -0,0 +1,22 @@
+package com.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BulkResult {
+    private long batch;
+    private int size;
+    private int inserted;
+    private int matched;
+    private int modified;
+    private int upserted;
+    private String error;
+
+    public boolean hasFailure() {
+        return error != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ImportProgress {
+    private long parsed;
+    private long written;
+    private long failed;
+}
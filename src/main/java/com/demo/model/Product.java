@@ -4,9 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 @Document("Products")
+@CompoundIndex(name = "category_id", def = "{'category': 1, '_id': 1}")
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -15,4 +19,10 @@ public class Product {
     private String id;
     private String name;
     private String category;
+    private Long version;
+    private Instant lastModified;
+
+    public Product(String id, String name, String category) {
+        this(id, name, category, null, null);
+    }
 }
@@ -0,0 +1,14 @@
+package com.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ProductChange {
+    private String operation;
+    private String id;
+    private Product product;
+}
@@ -0,0 +1,14 @@
+package com.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ProductLookup {
+    private String id;
+    private boolean found;
+    private Product product;
+}
@@ -0,0 +1,13 @@
+package com.demo.model;
+
+import lombok.Value;
+
+import java.util.Set;
+
+@Value
+public class ProductSummary {
+    public static final Set<String> FIELDS = Set.of("id", "name");
+
+    private String id;
+    private String name;
+}
@@ -0,0 +1,23 @@
+package com.demo.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class ProductVersion {
+    private String id;
+    private Long version;
+    private Instant lastModified;
+
+    /**
+     * Weak, because the same version is served as JSON, CBOR, Smile or protobuf and gzipped or
+     * not; responses carry {@code Vary: Accept, Accept-Encoding} so caches keep them apart. The
+     * modification time is part of it because a deleted and re-created product starts again at
+     * version 1.
+     */
+    public String eTag() {
+        // documents written before versioning have no version field and share version 0
+        return "W/\"" + (version == null ? 0 : version) + "-" + (lastModified == null ? 0 : lastModified.toEpochMilli()) + "\"";
+    }
+}
@@ -1,7 +1,21 @@
 package com.demo.repository;
 
 import com.demo.model.Product;
+import com.demo.model.ProductVersion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-public interface ProductRepository extends ReactiveMongoRepository<Product, String> {
+public interface ProductRepository extends ReactiveMongoRepository<Product, String>, ProductRepositoryCustom {
+
+    <T> Flux<T> findAllByOrderByIdAsc(Pageable pageable, Class<T> type);
+
+    <T> Flux<T> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable, Class<T> type);
+
+    <T> Flux<T> findByCategoryOrderByIdAsc(String category, Pageable pageable, Class<T> type);
+
+    <T> Flux<T> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, String id, Pageable pageable, Class<T> type);
+
+    Mono<ProductVersion> findVersionById(String id);
 }
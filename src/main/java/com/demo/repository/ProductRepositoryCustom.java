@@ -0,0 +1,14 @@
+package com.demo.repository;
+
+import com.demo.model.Product;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Replaces {@link ReactiveMongoRepository#save} so every write bumps {@code version} and
+     * stamps {@code lastModified} in the same atomic update.
+     */
+    <S extends Product> Mono<S> save(S product);
+}
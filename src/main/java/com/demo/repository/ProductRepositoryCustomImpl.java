@@ -0,0 +1,38 @@
+package com.demo.repository;
+
+import com.demo.model.Product;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.BasicUpdate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoOperations reactiveMongoOperations;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Product> Mono<S> save(S product) {
+        // Mongo keeps milliseconds, so the returned value matches what a later read sees
+        product.setLastModified(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        if (product.getId() == null) {
+            product.setVersion(1L);
+            return reactiveMongoOperations.insert(product);
+        }
+        Document fields = new Document();
+        reactiveMongoOperations.getConverter().write(product, fields);
+        Update update = new BasicUpdate(ProductUpdates.replaceAndIncrementVersion(reactiveMongoOperations.getConverter(), fields));
+        return reactiveMongoOperations.findAndModify(query(where("_id").is(product.getId())), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), (Class<S>) product.getClass());
+    }
+}
@@ -0,0 +1,37 @@
+package com.demo.repository;
+
+import com.demo.model.Product;
+import org.bson.Document;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+
+public final class ProductUpdates {
+
+    private ProductUpdates() {
+    }
+
+    /**
+     * Turns a converted product into an update that leaves the stored document equal to it, as a
+     * replace would, while incrementing {@code version}. The converter skips null properties, so
+     * those are {@code $unset} explicitly.
+     */
+    public static Document replaceAndIncrementVersion(MongoConverter converter, Document document) {
+        Document set = new Document(document);
+        set.remove("_id");
+        set.remove("version");
+        Document unset = new Document();
+        converter.getMappingContext().getRequiredPersistentEntity(Product.class)
+                .doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+                    String field = property.getFieldName();
+                    if (!property.isIdProperty() && !"version".equals(field) && !set.containsKey(field)) {
+                        unset.append(field, "");
+                    }
+                });
+        Document update = new Document("$set", set).append("$inc", new Document("version", 1L));
+        if (!unset.isEmpty()) {
+            update.append("$unset", unset);
+        }
+        return update;
+    }
+}
@@ -1,29 +1,104 @@
 package com.demo.router;
 
-import com.demo.model.Product;
-import com.demo.repository.ProductRepository;
+import com.demo.codec.ProductMediaTypes;
+import com.demo.model.CursorPage;
+import com.demo.model.ProductLookup;
+import com.demo.model.ProductVersion;
+import com.demo.service.ProductService;
+import com.demo.support.PipelineMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 @Component
 public class ProductRouteHandler {
 
+    private static final List<MediaType> BINARY = List.of(
+            MediaType.APPLICATION_CBOR, ProductMediaTypes.APPLICATION_SMILE, ProductMediaTypes.APPLICATION_PROTOBUF);
+
+    private static final ParameterizedTypeReference<CursorPage<?>> CURSOR_PAGE = new ParameterizedTypeReference<>() {
+    };
+
+    private static final ParameterizedTypeReference<List<String>> IDS = new ParameterizedTypeReference<>() {
+    };
+
     @Autowired
-    private ProductRepository productRepository;
+    private ProductService productService;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
 
     public Mono<ServerResponse> findAllProducts(ServerRequest request) {
+        String category = request.queryParam("category").orElse(null);
+        String after = request.queryParam("after").orElse(null);
+        Integer limit = request.queryParam("limit").map(ProductRouteHandler::toInteger).orElse(null);
+        Set<String> fields = StringUtils.commaDelimitedListToSet(request.queryParam("fields").orElse(null));
         return ServerResponse.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(productRepository.findAll(), Product.class);
+                .contentType(negotiate(request))
+                .body(pipelineMetrics.instrument("v2.products.list", productService.findPage(category, after, limit, fields)), CURSOR_PAGE);
     }
 
     public Mono<ServerResponse> findProductById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        // checkNotModified also puts ETag and Last-Modified on the exchange response for the 200 case;
+        // the metric covers the version lookup too, so 304s are recorded like in v1
+        return pipelineMetrics.instrument("v2.products.get", productService.findVersion(id)
+                .filter(version -> !notModified(request.exchange(), version))
+                .flatMap(version -> productService.findById(id)))
+                .flatMap(product -> ServerResponse.ok().contentType(negotiate(request)).bodyValue(product))
+                .switchIfEmpty(Mono.defer(() -> request.exchange().isNotModified()
+                        ? ServerResponse.status(HttpStatus.NOT_MODIFIED).build()
+                        : ServerResponse.ok().contentType(negotiate(request)).build()));
+    }
+
+    private static MediaType negotiate(ServerRequest request) {
+        List<MediaType> accept = new ArrayList<>(request.headers().accept());
+        MediaType.sortBySpecificityAndQuality(accept);
+        for (MediaType mediaType : accept) {
+            for (MediaType binary : BINARY) {
+                if (mediaType.isConcrete() && binary.isCompatibleWith(mediaType)) {
+                    return binary;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    public Mono<ServerResponse> batchGetProducts(ServerRequest request) {
+        MediaType contentType = request.headers().accept().stream().anyMatch(MediaType.APPLICATION_STREAM_JSON::isCompatibleWith)
+                ? MediaType.APPLICATION_STREAM_JSON
+                : MediaType.APPLICATION_JSON;
         return ServerResponse.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(productRepository.findById(request.pathVariable("id")), Product.class);
+                .contentType(contentType)
+                .body(pipelineMetrics.instrument("v2.products.batch-get",
+                        request.bodyToMono(IDS).flatMapMany(productService::findAllById)), ProductLookup.class);
+    }
+
+    private static boolean notModified(ServerWebExchange exchange, ProductVersion version) {
+        exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+        return version.getLastModified() == null
+                ? exchange.checkNotModified(version.eTag())
+                : exchange.checkNotModified(version.eTag(), version.getLastModified());
+    }
+
+    private static Integer toInteger(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid number: " + value);
+        }
     }
 }
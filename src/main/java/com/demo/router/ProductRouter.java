@@ -2,20 +2,28 @@ package com.demo.router;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.server.RequestPredicates;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import static com.demo.codec.ProductMediaTypes.APPLICATION_PROTOBUF;
+import static com.demo.codec.ProductMediaTypes.APPLICATION_SMILE;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
 import static org.springframework.http.MediaType.APPLICATION_STREAM_JSON;
 import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
 
 @Configuration
 public class ProductRouter {
+    private static final MediaType[] ACCEPTED = {APPLICATION_STREAM_JSON, APPLICATION_CBOR, APPLICATION_SMILE, APPLICATION_PROTOBUF};
+
     @Bean
     public RouterFunction<ServerResponse> route(ProductRouteHandler productRouteHandler) {
         return RouterFunctions
-                .route(GET("/v2/products").and(RequestPredicates.accept(APPLICATION_STREAM_JSON)), productRouteHandler::findAllProducts)
-                .andRoute(GET("/v2/products/{id}").and(RequestPredicates.accept(APPLICATION_STREAM_JSON)), productRouteHandler::findProductById);
+                .route(GET("/v2/products").and(RequestPredicates.accept(ACCEPTED)), productRouteHandler::findAllProducts)
+                .andRoute(GET("/v2/products/{id}").and(RequestPredicates.accept(ACCEPTED)), productRouteHandler::findProductById)
+                .andRoute(POST("/v2/products/batch-get"), productRouteHandler::batchGetProducts);
     }
 }
@@ -0,0 +1,100 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.BulkResult;
+import com.demo.model.Product;
+import com.demo.repository.ProductUpdates;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class ProductBulkWriter {
+
+    public enum Mode {
+        INSERT, UPSERT
+    }
+
+    @Autowired
+    private ReactiveMongoOperations reactiveMongoOperations;
+
+    @Autowired
+    private ProductProperties productProperties;
+
+    @Autowired
+    private ProductCache productCache;
+
+    public Flux<BulkResult> write(Flux<Product> products, Mode mode, boolean ordered) {
+        ProductProperties.Bulk config = productProperties.getBulk();
+        // ordered writes must not overtake each other, so batches go one at a time
+        int concurrency = ordered ? 1 : config.getConcurrency();
+        Flux<BulkResult> results = products
+                .buffer(config.getBatchSize())
+                .index()
+                .flatMapSequential(batch -> writeBatch(batch.getT1(), batch.getT2(), mode, ordered), concurrency);
+        // like a single ordered bulkWrite, an ordered request stops at the first batch that fails
+        return ordered ? results.takeUntil(BulkResult::hasFailure) : results;
+    }
+
+    private Mono<BulkResult> writeBatch(long index, List<Product> batch, Mode mode, boolean ordered) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        List<WriteModel<Document>> models = batch.stream()
+                .map(product -> toWriteModel(product, mode, now))
+                .collect(Collectors.toList());
+        BulkWriteOptions options = new BulkWriteOptions().ordered(ordered);
+        return reactiveMongoOperations.execute(Product.class, collection -> collection.bulkWrite(models, options))
+                .next()
+                .map(result -> toResult(index, batch.size(), result, null))
+                .onErrorResume(error -> Mono.just(toFailure(index, batch.size(), error)))
+                .doOnNext(result -> batch.forEach(product -> productCache.invalidate(product.getId())));
+    }
+
+    private WriteModel<Document> toWriteModel(Product product, Mode mode, Instant now) {
+        product.setLastModified(now);
+        if (mode == Mode.UPSERT && product.getId() != null) {
+            Document fields = new Document();
+            reactiveMongoOperations.getConverter().write(product, fields);
+            // same update as ProductRepository.save, so bulk upserts replace fields and invalidate ETags too
+            Document update = ProductUpdates.replaceAndIncrementVersion(reactiveMongoOperations.getConverter(), fields);
+            Object id = fields.get("_id");
+            return new UpdateOneModel<>(new Document("_id", id), update, new UpdateOptions().upsert(true));
+        }
+        product.setVersion(1L);
+        Document document = new Document();
+        reactiveMongoOperations.getConverter().write(product, document);
+        return new InsertOneModel<>(document);
+    }
+
+    private BulkResult toResult(long index, int size, BulkWriteResult result, String error) {
+        return new BulkResult(index, size,
+                result.getInsertedCount(),
+                result.getMatchedCount(),
+                result.getModifiedCount(),
+                result.getUpserts().size(),
+                error);
+    }
+
+    private BulkResult toFailure(long index, int size, Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException) {
+                return toResult(index, size, ((MongoBulkWriteException) cause).getWriteResult(), error.getMessage());
+            }
+        }
+        return new BulkResult(index, size, 0, 0, 0, 0, error.getMessage());
+    }
+}
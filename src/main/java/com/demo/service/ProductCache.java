@@ -0,0 +1,70 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.Product;
+import com.demo.model.ProductVersion;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Component
+public class ProductCache {
+
+    private final AsyncCache<String, Product> cache;
+    private final AsyncCache<String, ProductVersion> versions;
+
+    public ProductCache(ProductProperties productProperties, MeterRegistry meterRegistry) {
+        ProductProperties.Cache config = productProperties.getCache();
+        if (!config.isEnabled()) {
+            this.cache = null;
+            this.versions = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(config.getTtl())
+                .maximumSize(config.getMaximumSize())
+                .recordStats()
+                .buildAsync();
+        // versions are tiny, so conditional requests can stay cached for ids whose documents were evicted
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(config.getTtl())
+                .maximumSize(config.getMaximumSize() * 4)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, versions.synchronous(), "product-versions");
+    }
+
+    public Mono<Product> get(String id, Function<String, Mono<Product>> loader) {
+        return get(cache, id, loader);
+    }
+
+    public Mono<ProductVersion> getVersion(String id, Function<String, Mono<ProductVersion>> loader) {
+        return get(versions, id, loader);
+    }
+
+    public void invalidate(String id) {
+        if (cache != null && id != null) {
+            cache.synchronous().invalidate(id);
+            versions.synchronous().invalidate(id);
+        }
+    }
+
+    private static <V> Mono<V> get(AsyncCache<String, V> cache, String id, Function<String, Mono<V>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        return Mono.defer(() -> {
+            // concurrent misses for the same id share this future, so one Mongo call serves all of them
+            CompletableFuture<V> shared = cache.get(id, (key, executor) -> loader.apply(key).toFuture());
+            // a dependent stage keeps a cancelled subscriber from cancelling the shared load
+            return Mono.fromFuture(shared.thenApply(Function.identity()));
+        });
+    }
+}
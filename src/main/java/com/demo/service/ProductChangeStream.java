@@ -0,0 +1,59 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.Product;
+import com.demo.model.ProductChange;
+import com.demo.support.FanOutHub;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+@Component
+public class ProductChangeStream {
+
+    private final FanOutHub<ProductChange> hub;
+
+    public ProductChangeStream(ReactiveMongoOperations reactiveMongoOperations,
+                               ProductProperties productProperties,
+                               MeterRegistry meterRegistry) {
+        String collection = reactiveMongoOperations.getCollectionName(Product.class);
+        ChangeStreamOptions options = ChangeStreamOptions.builder().returnFullDocumentOnUpdate().build();
+        // one change stream cursor is opened for the first subscriber and shared by all the others
+        Flux<ProductChange> changes = Flux.defer(() -> reactiveMongoOperations.changeStream(collection, options, Product.class))
+                .map(this::toChange);
+        this.hub = new FanOutHub<>("product-changes", changes, productProperties.getChanges().getEvictAfter(), meterRegistry);
+    }
+
+    public Flux<ProductChange> subscribe(ProductProperties.Overflow overflow, int bufferSize) {
+        return hub.subscribe(overflow, bufferSize);
+    }
+
+    public List<FanOutHub.ConnectionStats> connections() {
+        return hub.connections();
+    }
+
+    private ProductChange toChange(ChangeStreamEvent<Product> event) {
+        ChangeStreamDocument<Document> raw = event.getRaw();
+        String id = raw == null || raw.getDocumentKey() == null ? null : toId(raw.getDocumentKey().get("_id"));
+        String operation = event.getOperationType() == null ? null : event.getOperationType().getValue();
+        return new ProductChange(operation, id, event.getBody());
+    }
+
+    private String toId(BsonValue value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isObjectId()) {
+            return value.asObjectId().getValue().toHexString();
+        }
+        return value.isString() ? value.asString().getValue() : value.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.ImportProgress;
+import com.demo.model.Product;
+import com.demo.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ProductImporter {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductProperties productProperties;
+
+    public Flux<ImportProgress> importProducts(Flux<DataBuffer> body) {
+        ProductProperties.Import config = productProperties.getImports();
+        StringDecoder decoder = StringDecoder.textPlainOnly(Collections.singletonList("\n"), true);
+        decoder.setMaxInMemorySize((int) config.getMaxLineSize().toBytes());
+
+        AtomicLong parsed = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        // flatMap only requests `concurrency` products at a time, and that demand is what
+        // pulls the next buffers off the socket, so memory stays flat however large the body is
+        return decoder.decode(body, ResolvableType.forClass(String.class), null, Collections.emptyMap())
+                .filter(line -> !line.trim().isEmpty())
+                .<Product>handle((line, sink) -> {
+                    try {
+                        Product product = objectMapper.readValue(line, Product.class);
+                        parsed.incrementAndGet();
+                        sink.next(product);
+                    } catch (IOException e) {
+                        failed.incrementAndGet();
+                    }
+                })
+                .flatMap(product -> productRepository.save(product)
+                        .doOnNext(saved -> {
+                            written.incrementAndGet();
+                            productCache.invalidate(saved.getId());
+                        })
+                        .onErrorResume(error -> {
+                            failed.incrementAndGet();
+                            return Mono.empty();
+                        })
+                        .thenReturn(product), config.getConcurrency())
+                .index()
+                .filter(processed -> (processed.getT1() + 1) % config.getProgressInterval() == 0)
+                .map(processed -> new ImportProgress(parsed.get(), written.get(), failed.get()))
+                .concatWith(Mono.fromSupplier(() -> new ImportProgress(parsed.get(), written.get(), failed.get())));
+    }
+}
@@ -0,0 +1,158 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.CursorPage;
+import com.demo.model.Product;
+import com.demo.model.ProductLookup;
+import com.demo.model.ProductSummary;
+import com.demo.model.ProductVersion;
+import com.demo.repository.ProductRepository;
+import com.demo.support.ExecutionStrategy;
+import com.demo.support.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Service
+public class ProductService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductProperties productProperties;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ExecutionStrategy executionStrategy;
+
+    @Autowired
+    private ProductWriteBehind productWriteBehind;
+
+    private final SingleFlight<String, Product> singleFlight = new SingleFlight<>();
+
+    public Flux<Product> streamAll() {
+        return executionStrategy.apply(productRepository.findAll());
+    }
+
+    public Mono<Product> findById(String id) {
+        // an update acknowledged by the write-behind buffer wins over what Mongo still holds
+        return productWriteBehind.pending(id)
+                .switchIfEmpty(Mono.defer(() -> productCache.get(id, key -> singleFlight.execute(key, productRepository::findById))));
+    }
+
+    /**
+     * Resolves all ids with one {@code $in} query. Results come back in request order, and each
+     * one is emitted as soon as every id before it has been resolved; ids Mongo did not return
+     * are reported as misses once the query completes.
+     */
+    public Flux<ProductLookup> findAllById(List<String> ids) {
+        int maxIds = productProperties.getBatchGet().getMaxIds();
+        if (ids == null || ids.isEmpty()) {
+            return Flux.empty();
+        }
+        if (ids.size() > maxIds) {
+            return Flux.error(new ServerWebInputException("At most " + maxIds + " ids per request"));
+        }
+        return Flux.defer(() -> {
+            Map<String, Product> arrived = new HashMap<>();
+            AtomicInteger next = new AtomicInteger();
+            return productRepository.findAllById(new ArrayList<>(new LinkedHashSet<>(ids)))
+                    .concatMapIterable(product -> {
+                        arrived.put(product.getId(), product);
+                        List<ProductLookup> ready = new ArrayList<>();
+                        while (next.get() < ids.size() && arrived.containsKey(ids.get(next.get()))) {
+                            ready.add(found(ids.get(next.getAndIncrement()), arrived));
+                        }
+                        return ready;
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(ids.subList(next.get(), ids.size()))
+                            .map(id -> arrived.containsKey(id) ? found(id, arrived) : new ProductLookup(id, false, null))));
+        });
+    }
+
+    public Mono<ProductVersion> findVersion(String id) {
+        return productWriteBehind.pending(id)
+                .map(product -> new ProductVersion(id, product.getVersion(), product.getLastModified()))
+                .switchIfEmpty(Mono.defer(() -> productCache.getVersion(id, productRepository::findVersionById)));
+    }
+
+    public Mono<Product> save(Product product) {
+        return productRepository.save(product)
+                .doOnNext(saved -> productCache.invalidate(saved.getId()));
+    }
+
+    public Mono<Void> deleteById(String id) {
+        return productRepository.deleteById(id)
+                .doOnSuccess(it -> productCache.invalidate(id));
+    }
+
+    public Mono<CursorPage<Product>> findPage(String category, String after, Integer limit) {
+        return findPage(Product.class, Product::getId, category, after, limit);
+    }
+
+    public Mono<CursorPage<?>> findPage(String category, String after, Integer limit, Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return Mono.from(findPage(category, after, limit));
+        }
+        if (ProductSummary.FIELDS.containsAll(fields)) {
+            // the summary projection makes Mongo return only id and name
+            return Mono.from(findPage(ProductSummary.class, ProductSummary::getId, category, after, limit));
+        }
+        return Mono.error(new ServerWebInputException("Unsupported fields: " + fields));
+    }
+
+    private static ProductLookup found(String id, Map<String, Product> arrived) {
+        return new ProductLookup(id, true, arrived.get(id));
+    }
+
+    private <T> Mono<CursorPage<T>> findPage(Class<T> type, Function<T, String> idOf,
+                                             String category, String after, Integer limit) {
+        int size = pageSize(limit);
+        // one extra row tells us whether a next page exists without a count query
+        Pageable pageable = PageRequest.of(0, size + 1);
+        return executionStrategy.apply(query(type, category, after, pageable).collectList().map(content -> toPage(content, size, idOf)));
+    }
+
+    private <T> Flux<T> query(Class<T> type, String category, String after, Pageable pageable) {
+        if (category == null) {
+            return after == null
+                    ? productRepository.findAllByOrderByIdAsc(pageable, type)
+                    : productRepository.findByIdGreaterThanOrderByIdAsc(after, pageable, type);
+        }
+        return after == null
+                ? productRepository.findByCategoryOrderByIdAsc(category, pageable, type)
+                : productRepository.findByCategoryAndIdGreaterThanOrderByIdAsc(category, after, pageable, type);
+    }
+
+    private <T> CursorPage<T> toPage(List<T> content, int size, Function<T, String> idOf) {
+        if (content.size() <= size) {
+            return new CursorPage<>(content, null);
+        }
+        List<T> page = content.subList(0, size);
+        return new CursorPage<>(page, idOf.apply(page.get(size - 1)));
+    }
+
+    private int pageSize(Integer limit) {
+        ProductProperties.Page page = productProperties.getPage();
+        if (limit == null) {
+            return Math.min(page.getDefaultSize(), page.getMaxSize());
+        }
+        return Math.max(1, Math.min(limit, page.getMaxSize()));
+    }
+}
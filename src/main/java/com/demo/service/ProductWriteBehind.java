@@ -0,0 +1,194 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.BulkResult;
+import com.demo.model.Product;
+import com.demo.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Buffers product updates per id and writes them to Mongo in bulk. Updates to an id that is
+ * still pending replace its value, so a hot product is written once per flush however often
+ * it changes. A flush runs every {@code flushInterval} and as soon as {@code maxPending} ids
+ * are waiting.
+ */
+@Component
+public class ProductWriteBehind {
+
+    private final ProductProperties.WriteBehind config;
+    private final int bulkBatchSize;
+    private final ProductBulkWriter productBulkWriter;
+    private final ProductRepository productRepository;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<String, Product> writing = new ConcurrentHashMap<>();
+    // the running flush, claimed and published in one step so a waiting enqueue never sees a stale one
+    private final AtomicReference<MonoProcessor<Void>> running = new AtomicReference<>();
+    private final MonoProcessor<Void> stopped = MonoProcessor.create();
+    private final Counter collapsed;
+    private final Timer lag;
+    private final DistributionSummary flushSize;
+    private final Counter throttled;
+
+    public ProductWriteBehind(ProductProperties productProperties, ProductBulkWriter productBulkWriter,
+                              ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.config = productProperties.getWriteBehind();
+        this.bulkBatchSize = productProperties.getBulk().getBatchSize();
+        this.productBulkWriter = productBulkWriter;
+        this.productRepository = productRepository;
+        this.collapsed = Counter.builder("writebehind.collapsed").register(meterRegistry);
+        this.lag = Timer.builder("writebehind.flush.lag")
+                .description("Time from the first buffered update of an id until it was written")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("writebehind.flush.size").register(meterRegistry);
+        this.throttled = Counter.builder("writebehind.throttled")
+                .description("Updates that waited for a running flush because max-pending ids were already buffered")
+                .register(meterRegistry);
+        Gauge.builder("writebehind.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (config.isEnabled()) {
+            // ending the ticks rather than disposing the subscription lets a running flush finish
+            Flux.interval(config.getFlushInterval())
+                    .takeUntilOther(stopped)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> flush(), 1)
+                    .subscribe();
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * The value buffered or being flushed for an id, so reads see an acknowledged update before
+     * it reaches Mongo.
+     */
+    public Mono<Product> pending(String id) {
+        return Mono.fromSupplier(() -> {
+            Pending entry = pending.get(id);
+            return entry != null ? entry.product : writing.get(id);
+        });
+    }
+
+    public Mono<Product> enqueue(Product product) {
+        if (pending.size() >= config.getMaxPending() && !pending.containsKey(product.getId())) {
+            flush().subscribe();
+            if (pending.size() >= config.getMaxPending()) {
+                // a flush is already running and the buffer is full, so the caller waits for it
+                throttled.increment();
+                MonoProcessor<Void> flush = running.get();
+                return (flush == null ? Mono.<Void>empty() : flush).then(Mono.defer(() -> enqueue(product)));
+            }
+        }
+        // a fresh modification time keeps the ETag of a pending value apart from the stored one
+        product.setLastModified(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        Pending entry = pending.compute(product.getId(), (id, existing) -> {
+            if (existing == null) {
+                return new Pending(product);
+            }
+            collapsed.increment();
+            existing.product = product;
+            return existing;
+        });
+        if (pending.size() >= config.getMaxPending()) {
+            flush().subscribe();
+        }
+        if (config.getDurability() == ProductProperties.Durability.ACK_ON_ENQUEUE) {
+            return Mono.just(product);
+        }
+        // the upsert increments the stored version, so answer with what was written rather than the request body
+        return entry.flushed.then(productRepository.findById(product.getId()));
+    }
+
+    /**
+     * Writes everything pending at the time of the call. Only one flush runs at a time; a
+     * trigger that arrives during a flush is picked up by the next tick, and once
+     * {@code maxPending} ids are buffered new ids wait for the running flush to finish.
+     */
+    public Mono<Void> flush() {
+        return Mono.defer(() -> {
+            MonoProcessor<Void> done = MonoProcessor.create();
+            if (pending.isEmpty() || !running.compareAndSet(null, done)) {
+                return Mono.empty();
+            }
+            List<Pending> batch = new ArrayList<>();
+            for (String id : pending.keySet()) {
+                // moved to writing before it leaves pending, so a concurrent read finds it in one of them
+                pending.computeIfPresent(id, (key, entry) -> {
+                    writing.put(key, entry.product);
+                    batch.add(entry);
+                    return null;
+                });
+            }
+            flushSize.record(batch.size());
+            return productBulkWriter.write(Flux.fromIterable(batch).map(entry -> entry.product), ProductBulkWriter.Mode.UPSERT, false)
+                    .doOnNext(result -> complete(batch, result))
+                    .doOnError(error -> batch.forEach(entry -> entry.flushed.onError(error)))
+                    .onErrorResume(error -> Mono.empty())
+                    .doFinally(signal -> {
+                        batch.forEach(entry -> writing.remove(entry.product.getId(), entry.product));
+                        running.set(null);
+                        done.onComplete();
+                    })
+                    .then();
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped.onComplete();
+        // keep flushing until nothing is pending or in flight, so a clean shutdown loses no updates
+        Mono.defer(this::flush)
+                .repeatWhen(flushes -> flushes.delayElements(Duration.ofMillis(10))
+                        .takeWhile(it -> !pending.isEmpty() || running.get() != null))
+                .then()
+                .block(Duration.ofSeconds(30));
+    }
+
+    private void complete(List<Pending> batch, BulkResult result) {
+        int from = (int) result.getBatch() * bulkBatchSize;
+        long now = System.nanoTime();
+        for (Pending entry : batch.subList(from, from + result.getSize())) {
+            lag.record(now - entry.enqueued, TimeUnit.NANOSECONDS);
+            if (result.getError() == null) {
+                entry.flushed.onComplete();
+            } else {
+                entry.flushed.onError(new IllegalStateException(result.getError()));
+            }
+        }
+    }
+
+    private static class Pending {
+        private final long enqueued = System.nanoTime();
+        private final MonoProcessor<Void> flushed = MonoProcessor.create();
+        private volatile Product product;
+
+        private Pending(Product product) {
+            this.product = product;
+        }
+    }
+}
@@ -1,52 +1,104 @@
 package com.demo.support;
 
+import com.demo.config.ProductProperties;
 import com.demo.model.Product;
-import com.demo.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Seeds {@code product.seed.count} synthetic products through batched inserts. In
+ * {@code if-empty} mode an existing collection is left alone, so restarts cost one query;
+ * {@code replace} drops the collection first and is meant for perf environments. With
+ * {@code product.startup.defer-initialization} it runs once the application is ready instead.
+ */
 @Component
 public class DataInitiator implements CommandLineRunner {
-    @Autowired
-    private ProductRepository productRepository;
+
+    private static final Logger log = LoggerFactory.getLogger(DataInitiator.class);
 
     @Autowired
     private ReactiveMongoOperations reactiveMongoOperations;
 
+    @Autowired
+    private IndexInitiator indexInitiator;
+
+    @Autowired
+    private ProductProperties productProperties;
+
+    @Autowired
+    private SignalSampler signalSampler;
+
     @Override
     public void run(String... args) throws Exception {
-        Flux<Product> products = Flux.just(
-                new Product(null, "Item-1", "Category-1"),
-                new Product(null, "Item-2", "Category-1"),
-                new Product(null, "Item-3", "Category-2"),
-                new Product(null, "Item-4", "Category-2"),
-                new Product(null, "Item-5", "Category-3"),
-                new Product(null, "Item-6", "Category-3"),
-                new Product(null, "Item-7", "Category-4"),
-                new Product(null, "Item-8", "Category-4"),
-                new Product(null, "Item-9", "Category-5"),
-                new Product(null, "Item-10", "Category-5"));
-
-        reactiveMongoOperations.collectionExists(Product.class)
-                .flatMap(it -> {
-                    if (it) {
-                        return reactiveMongoOperations.dropCollection(Product.class);
-                    } else {
-                        return Mono.empty();
-                    }
-                })
-                .thenMany(reactiveMongoOperations.createCollection(Product.class))
-                .thenMany(products.flatMap(it -> productRepository.save(it)))
-                .thenMany(productRepository.findAll())
-                .log()
+        if (!productProperties.getStartup().isDeferInitialization()) {
+            seed();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (productProperties.getStartup().isDeferInitialization()) {
+            seed();
+        }
+    }
+
+    private void seed() {
+        ProductProperties.Seed seed = productProperties.getSeed();
+        if (!seed.isEnabled() || seed.getCount() <= 0) {
+            log.info("Seeding skipped");
+            return;
+        }
+        long started = System.nanoTime();
+        prepare(seed.getMode())
+                .flatMap(empty -> empty ? insert(seed) : Mono.just(0L))
                 .subscribe(
-                        it -> System.out.println(it),
-                        error -> System.out.println(error),
-                        () -> System.out.println(" -- Database has been initialized"));
+                        count -> report(count, Duration.ofNanos(System.nanoTime() - started)),
+                        error -> log.error("Seeding failed", error));
+    }
+
+    private Mono<Boolean> prepare(ProductProperties.SeedMode mode) {
+        if (mode == ProductProperties.SeedMode.REPLACE) {
+            // dropping the collection drops its indexes too
+            return reactiveMongoOperations.dropCollection(Product.class)
+                    .then(indexInitiator.ensureIndexes())
+                    .thenReturn(true);
+        }
+        return reactiveMongoOperations.exists(new Query(), Product.class).map(exists -> !exists);
+    }
+
+    private Mono<Long> insert(ProductProperties.Seed seed) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Flux<Long> batches = Flux.range(0, seed.getCount())
+                .map(i -> new Product(null, "Item-" + (i + 1), "Category-" + (i % seed.getCategories() + 1), 1L, now))
+                .buffer(seed.getBatchSize())
+                .flatMap(this::insertBatch, seed.getConcurrency());
+        return signalSampler.sample("seed", batches).reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> insertBatch(List<Product> batch) {
+        return reactiveMongoOperations.insert(batch, Product.class).count();
+    }
 
+    private void report(long count, Duration elapsed) {
+        if (count == 0) {
+            log.info("Database already initialized");
+            return;
+        }
+        long perSecond = count * 1000 / Math.max(1, elapsed.toMillis());
+        log.info("Database has been initialized: {} products in {} ms ({}/s)", count, elapsed.toMillis(), perSecond);
     }
 }
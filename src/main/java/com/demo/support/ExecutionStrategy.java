@@ -0,0 +1,55 @@
+package com.demo.support;
+
+import com.demo.config.ProductProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Decides where product pipelines deliver their elements. The Mongo driver already emits
+ * off the event loop, so {@code SAME_THREAD} skips the extra queue and thread hop; the
+ * other modes are for deployments that do CPU-heavy work per element.
+ */
+@Component
+public class ExecutionStrategy {
+
+    private final Scheduler scheduler;
+    private final int prefetch;
+
+    public ExecutionStrategy(ProductProperties productProperties) {
+        ProductProperties.Execution config = productProperties.getExecution();
+        this.scheduler = scheduler(config);
+        this.prefetch = config.getPrefetch();
+    }
+
+    public <T> Flux<T> apply(Flux<T> flux) {
+        return scheduler == null ? flux : flux.publishOn(scheduler, prefetch);
+    }
+
+    public <T> Mono<T> apply(Mono<T> mono) {
+        return scheduler == null ? mono : mono.publishOn(scheduler);
+    }
+
+    @PreDestroy
+    public void dispose() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    private static Scheduler scheduler(ProductProperties.Execution config) {
+        switch (config.getMode()) {
+            case BOUNDED_ELASTIC:
+                return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, config.getThreadNamePrefix());
+            case PARALLEL:
+                return Schedulers.newParallel(config.getThreadNamePrefix(), config.getParallelism());
+            default:
+                return null;
+        }
+    }
+}
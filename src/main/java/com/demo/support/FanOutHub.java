@@ -0,0 +1,119 @@
+package com.demo.support;
+
+import com.demo.config.ProductProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Shares one upstream between many subscribers. Every subscriber gets its own bounded buffer,
+ * so a slow one only loses its own elements, and a subscriber that keeps overflowing without
+ * taking anything for {@code evictAfter} is disconnected.
+ */
+public class FanOutHub<T> {
+
+    @Value
+    public static class ConnectionStats {
+        private long id;
+        private long received;
+        private long delivered;
+        private long dropped;
+        private long lag;
+    }
+
+    private final Flux<T> shared;
+    private final Duration evictAfter;
+    private final Map<Long, Connection> connections = new ConcurrentHashMap<>();
+    private final AtomicLong connectionIds = new AtomicLong();
+    private final Counter dropped;
+    private final Counter evicted;
+
+    public FanOutHub(String name, Flux<T> source, Duration evictAfter, MeterRegistry meterRegistry) {
+        this.shared = source.publish().refCount();
+        this.evictAfter = evictAfter;
+        this.dropped = Counter.builder("fanout.dropped").tag("hub", name).register(meterRegistry);
+        this.evicted = Counter.builder("fanout.evicted").tag("hub", name).register(meterRegistry);
+        Gauge.builder("fanout.subscribers", connections, Map::size).tag("hub", name).register(meterRegistry);
+        Gauge.builder("fanout.lag.max", connections, FanOutHub::maxLag).tag("hub", name).register(meterRegistry);
+    }
+
+    public Flux<T> subscribe(ProductProperties.Overflow overflow, int bufferSize) {
+        return Flux.defer(() -> {
+            Connection connection = new Connection(connectionIds.incrementAndGet());
+            connections.put(connection.id, connection);
+            return bounded(shared.doOnNext(it -> connection.received.incrementAndGet()), overflow, bufferSize, connection)
+                    .doOnNext(it -> connection.delivered())
+                    .takeUntilOther(connection.evicted)
+                    .doFinally(signal -> connections.remove(connection.id));
+        });
+    }
+
+    public List<ConnectionStats> connections() {
+        return connections.values().stream()
+                .map(Connection::stats)
+                .collect(Collectors.toList());
+    }
+
+    private Flux<T> bounded(Flux<T> source, ProductProperties.Overflow overflow, int bufferSize, Connection connection) {
+        switch (overflow) {
+            case DROP:
+                return source.onBackpressureDrop(it -> connection.dropped());
+            case LATEST:
+                return source.onBackpressureBuffer(1, it -> connection.dropped(), BufferOverflowStrategy.DROP_OLDEST);
+            default:
+                return source.onBackpressureBuffer(bufferSize, it -> connection.dropped(), BufferOverflowStrategy.DROP_OLDEST);
+        }
+    }
+
+    private static double maxLag(Map<Long, Connection> connections) {
+        return connections.values().stream().mapToLong(Connection::lag).max().orElse(0);
+    }
+
+    private class Connection {
+        private final long id;
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final MonoProcessor<Boolean> evicted = MonoProcessor.create();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+        private volatile long lastDelivery = System.nanoTime();
+
+        private Connection(long id) {
+            this.id = id;
+        }
+
+        private void delivered() {
+            delivered.incrementAndGet();
+            lastDelivery = System.nanoTime();
+        }
+
+        private void dropped() {
+            dropped.incrementAndGet();
+            FanOutHub.this.dropped.increment();
+            if (System.nanoTime() - lastDelivery > evictAfter.toNanos() && evicting.compareAndSet(false, true)) {
+                FanOutHub.this.evicted.increment();
+                evicted.onNext(true);
+            }
+        }
+
+        private long lag() {
+            return received.get() - delivered.get() - dropped.get();
+        }
+
+        private ConnectionStats stats() {
+            return new ConnectionStats(id, received.get(), delivered.get(), dropped.get(), lag());
+        }
+    }
+}
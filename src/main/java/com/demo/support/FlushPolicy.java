@@ -0,0 +1,228 @@
+package com.demo.support;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Groups a stream into flushes. A batch is emitted when it reaches {@code maxElements}, when
+ * its first element has waited {@code maxDelay}, or when nothing new has arrived for
+ * {@code idleTimeout}. Dense streams get large writes and sparse streams are written almost
+ * as soon as each element arrives.
+ */
+public class FlushPolicy {
+
+    private final int maxElements;
+    private final Duration maxDelay;
+    private final Duration idleTimeout;
+    private final Scheduler timer;
+
+    public FlushPolicy(int maxElements, Duration maxDelay, Duration idleTimeout) {
+        this(maxElements, maxDelay, idleTimeout, Schedulers.parallel());
+    }
+
+    public FlushPolicy(int maxElements, Duration maxDelay, Duration idleTimeout, Scheduler timer) {
+        this.maxElements = Math.max(1, maxElements);
+        this.maxDelay = maxDelay;
+        this.idleTimeout = idleTimeout;
+        this.timer = timer;
+    }
+
+    public <T> Flux<List<T>> apply(Flux<T> source) {
+        if (maxElements == 1) {
+            return source.map(List::of);
+        }
+        return Flux.create(sink -> {
+            Batcher<T> batcher = new Batcher<>(sink);
+            source.subscribe(batcher);
+            sink.onRequest(batcher::requestBatches);
+            sink.onDispose(batcher::dispose);
+        });
+    }
+
+    /**
+     * Emits a batch only against a downstream request and asks upstream for no more than fills
+     * the batch in progress, so at most {@code maxElements} values are held however slow the
+     * consumer is. A batch that is due while nothing is requested waits for the next request.
+     */
+    private class Batcher<T> extends BaseSubscriber<T> {
+        private final FluxSink<List<T>> sink;
+        private final Scheduler.Worker worker = timer.createWorker();
+        private final AtomicInteger requesting = new AtomicInteger();
+        private List<T> pending = new ArrayList<>();
+        private long demand;
+        private long upstreamRequested;
+        private boolean due;
+        private boolean done;
+        private boolean finished;
+        private Throwable error;
+        private long generation;
+        private long firstArrival;
+        private long lastArrival;
+        private Disposable deadline;
+
+        private Batcher(FluxSink<List<T>> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // demand is driven by sink.onRequest
+        }
+
+        @Override
+        protected void hookOnNext(T value) {
+            synchronized (this) {
+                upstreamRequested--;
+                lastArrival = timer.now(TimeUnit.NANOSECONDS);
+                pending.add(value);
+                if (pending.size() >= maxElements) {
+                    flushOrHold();
+                } else if (pending.size() == 1) {
+                    firstArrival = lastArrival;
+                    schedule(generation, Math.min(idleTimeout.toNanos(), maxDelay.toNanos()));
+                }
+            }
+            requestUpstream();
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            terminate(null);
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            terminate(throwable);
+        }
+
+        @Override
+        protected void hookFinally(SignalType type) {
+            worker.dispose();
+        }
+
+        private void requestBatches(long batches) {
+            synchronized (this) {
+                demand = Operators.addCap(demand, batches);
+                if (due) {
+                    flushOrHold();
+                }
+                finishIfDrained();
+            }
+            requestUpstream();
+        }
+
+        private void terminate(Throwable throwable) {
+            synchronized (this) {
+                done = true;
+                error = throwable;
+                // what is left goes out with the next request, then the terminal signal follows
+                flushOrHold();
+                finishIfDrained();
+            }
+        }
+
+        private void finishIfDrained() {
+            if (!done || finished || !pending.isEmpty()) {
+                return;
+            }
+            finished = true;
+            if (error == null) {
+                sink.complete();
+            } else {
+                sink.error(error);
+            }
+        }
+
+        /**
+         * Tops upstream demand up to what the batch in progress can still take. Calls made while
+         * another is requesting, including re-entrant ones from synchronous sources, are picked up
+         * by the loop instead of recursing.
+         */
+        private void requestUpstream() {
+            if (requesting.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long wanted = 0;
+                synchronized (this) {
+                    if (!done && demand > 0) {
+                        wanted = maxElements - pending.size() - upstreamRequested;
+                        if (wanted > 0) {
+                            upstreamRequested += wanted;
+                        }
+                    }
+                }
+                if (wanted > 0) {
+                    request(wanted);
+                }
+                missed = requesting.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * A single timer per batch: when it fires it either flushes or re-arms itself for the
+         * nearer of the idle and max-delay deadlines, so dense streams don't pay a timer per element.
+         */
+        private void schedule(long batch, long delayNanos) {
+            deadline = worker.schedule(() -> onDeadline(batch), delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void onDeadline(long batch) {
+            synchronized (this) {
+                if (batch != generation || pending.isEmpty()) {
+                    return;
+                }
+                long now = timer.now(TimeUnit.NANOSECONDS);
+                long idleLeft = lastArrival + idleTimeout.toNanos() - now;
+                long delayLeft = firstArrival + maxDelay.toNanos() - now;
+                if (idleLeft <= 0 || delayLeft <= 0) {
+                    flushOrHold();
+                } else {
+                    schedule(batch, Math.min(idleLeft, delayLeft));
+                }
+            }
+            requestUpstream();
+        }
+
+        private void flushOrHold() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (demand == 0) {
+                due = true;
+                return;
+            }
+            generation++;
+            due = false;
+            if (deadline != null) {
+                deadline.dispose();
+                deadline = null;
+            }
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+            List<T> batch = pending;
+            pending = new ArrayList<>(Math.min(batch.size(), maxElements));
+            sink.next(batch);
+        }
+
+        private void dispose() {
+            cancel();
+            worker.dispose();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.demo.support;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class IndexInitiator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexInitiator.class);
+
+    @Autowired
+    private ReactiveMongoOperations reactiveMongoOperations;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    @Autowired
+    private ProductProperties productProperties;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!productProperties.getStartup().isDeferInitialization()) {
+            ensureIndexesInBackground();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (productProperties.getStartup().isDeferInitialization()) {
+            ensureIndexesInBackground();
+        }
+    }
+
+    private void ensureIndexesInBackground() {
+        ensureIndexes().subscribe(
+                null,
+                error -> log.error("Ensuring indexes failed", error),
+                () -> log.info("Indexes ensured"));
+    }
+
+    public Mono<Void> ensureIndexes() {
+        IndexResolver indexResolver = IndexResolver.create(mongoMappingContext);
+        ReactiveIndexOperations indexOperations = reactiveMongoOperations.indexOps(Product.class);
+
+        return Flux.fromIterable(indexResolver.resolveIndexFor(Product.class))
+                .concatMap(indexOperations::ensureIndex)
+                .doOnNext(it -> log.info("Index ensured: {}", it))
+                .then();
+    }
+}
@@ -0,0 +1,128 @@
+package com.demo.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records how a named pipeline behaves per subscription: time from assembly to subscribe,
+ * time to first element, duration by outcome, elements emitted and demand requested.
+ * Meters are tagged with {@code pipeline=<name>}.
+ */
+@Component
+public class PipelineMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Flux<T> instrument(String name, Flux<T> flux) {
+        Meters pipeline = meters.computeIfAbsent(name, Meters::new);
+        long assembled = System.nanoTime();
+        return Flux.defer(() -> {
+            Probe probe = new Probe(pipeline, assembled);
+            return flux
+                    .doOnSubscribe(it -> probe.subscribed())
+                    .doOnRequest(probe::requested)
+                    .doOnNext(it -> probe.next())
+                    .doFinally(probe::finished);
+        });
+    }
+
+    public <T> Mono<T> instrument(String name, Mono<T> mono) {
+        Meters pipeline = meters.computeIfAbsent(name, Meters::new);
+        long assembled = System.nanoTime();
+        return Mono.defer(() -> {
+            Probe probe = new Probe(pipeline, assembled);
+            return mono
+                    .doOnSubscribe(it -> probe.subscribed())
+                    .doOnRequest(probe::requested)
+                    .doOnNext(it -> probe.next())
+                    .doFinally(probe::finished);
+        });
+    }
+
+    private class Meters {
+        private final Timer subscribeLatency;
+        private final Timer firstElement;
+        private final Timer completed;
+        private final Timer failed;
+        private final Timer cancelled;
+        private final DistributionSummary elements;
+        private final Counter requested;
+        private final Counter unboundedRequests;
+        private final AtomicInteger active = new AtomicInteger();
+
+        private Meters(String name) {
+            subscribeLatency = Timer.builder("pipeline.subscribe.latency").tag("pipeline", name).register(meterRegistry);
+            firstElement = Timer.builder("pipeline.first.element").tag("pipeline", name).register(meterRegistry);
+            completed = duration(name, "complete");
+            failed = duration(name, "error");
+            cancelled = duration(name, "cancel");
+            elements = DistributionSummary.builder("pipeline.elements").tag("pipeline", name).register(meterRegistry);
+            requested = Counter.builder("pipeline.requested").tag("pipeline", name).register(meterRegistry);
+            unboundedRequests = Counter.builder("pipeline.requested.unbounded").tag("pipeline", name).register(meterRegistry);
+            Gauge.builder("pipeline.active", active, AtomicInteger::get).tag("pipeline", name).register(meterRegistry);
+        }
+
+        private Timer duration(String name, String outcome) {
+            return Timer.builder("pipeline.duration").tag("pipeline", name).tag("outcome", outcome).register(meterRegistry);
+        }
+    }
+
+    private static class Probe {
+        private final Meters meters;
+        private final long assembled;
+        private long subscribed;
+        private long count;
+
+        private Probe(Meters meters, long assembled) {
+            this.meters = meters;
+            this.assembled = assembled;
+        }
+
+        private void subscribed() {
+            subscribed = System.nanoTime();
+            meters.subscribeLatency.record(subscribed - assembled, TimeUnit.NANOSECONDS);
+            meters.active.incrementAndGet();
+        }
+
+        private void requested(long n) {
+            if (n == Long.MAX_VALUE) {
+                meters.unboundedRequests.increment();
+            } else {
+                meters.requested.increment(n);
+            }
+        }
+
+        private void next() {
+            if (count++ == 0) {
+                meters.firstElement.record(System.nanoTime() - subscribed, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void finished(SignalType signal) {
+            long elapsed = System.nanoTime() - subscribed;
+            Timer timer = signal == SignalType.ON_COMPLETE ? meters.completed
+                    : signal == SignalType.ON_ERROR ? meters.failed
+                    : meters.cancelled;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            meters.elements.record(count);
+            meters.active.decrementAndGet();
+        }
+    }
+}
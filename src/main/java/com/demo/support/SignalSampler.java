@@ -0,0 +1,77 @@
+package com.demo.support;
+
+import com.demo.config.ProductProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cheap replacement for {@code .log()}. Each route logs through its own
+ * {@code diagnostics.<route>} logger and stays silent unless that logger is at DEBUG, which
+ * can be switched at runtime through {@code /actuator/loggers}. When on, it logs one element
+ * in {@code sampleRate}, any element slower than {@code slowThreshold} after the previous
+ * one, and a summary when the sequence terminates.
+ */
+@Component
+public class SignalSampler {
+
+    private final int sampleRate;
+    private final long slowThresholdNanos;
+
+    public SignalSampler(ProductProperties productProperties) {
+        ProductProperties.Diagnostics config = productProperties.getDiagnostics();
+        this.sampleRate = Math.max(1, config.getSampleRate());
+        this.slowThresholdNanos = config.getSlowThreshold().toNanos();
+    }
+
+    public <T> Flux<T> sample(String route, Flux<T> flux) {
+        Logger log = LoggerFactory.getLogger("diagnostics." + route);
+        return Flux.defer(() -> {
+            if (!log.isDebugEnabled()) {
+                return flux;
+            }
+            Sample sample = new Sample(log);
+            return flux
+                    .doOnRequest(sample::requested)
+                    .doOnNext(sample::next)
+                    .doFinally(sample::finished);
+        });
+    }
+
+    private class Sample {
+        private final Logger log;
+        private final long started = System.nanoTime();
+        private long previous = started;
+        private long count;
+        private long requested;
+
+        private Sample(Logger log) {
+            this.log = log;
+        }
+
+        private void requested(long n) {
+            requested = n == Long.MAX_VALUE || requested + n < 0 ? Long.MAX_VALUE : requested + n;
+        }
+
+        private void next(Object value) {
+            long now = System.nanoTime();
+            long gap = now - previous;
+            previous = now;
+            if (++count % sampleRate == 0) {
+                log.debug("onNext #{}: {}", count, value);
+            } else if (gap > slowThresholdNanos) {
+                log.debug("slow onNext #{} after {} ms: {}", count, TimeUnit.NANOSECONDS.toMillis(gap), value);
+            }
+        }
+
+        private void finished(SignalType signal) {
+            log.debug("{} after {} elements in {} ms, requested {}", signal, count,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                    requested == Long.MAX_VALUE ? "unbounded" : requested);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.demo.support;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Collapses concurrent calls for the same key into one upstream subscription. The entry only
+ * lives while the call is in flight; a caller that arrives after it completes starts a new one.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<V> execute(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Flight flight = new Flight(key, loader);
+            Flight existing = inFlight.putIfAbsent(key, flight);
+            return existing == null ? flight.result : existing.result;
+        });
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+
+    private class Flight {
+        private final Mono<V> result;
+
+        private Flight(K key, Function<K, Mono<V>> loader) {
+            // cache() keeps the shared call running when one of its callers cancels
+            this.result = Mono.defer(() -> loader.apply(key))
+                    .doFinally(signal -> inFlight.remove(key, this))
+                    .cache();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.demo.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how long each bean takes from instantiation until it is fully initialized, minus
+ * the time spent creating the beans it depends on, and logs the slowest ones together with the
+ * time from JVM start to {@link ApplicationReadyEvent}. Beans created lazily after the
+ * application is ready are not reported.
+ */
+public class StartupTimings implements InstantiationAwareBeanPostProcessor, ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimings.class);
+
+    private final int top;
+    private final Map<String, Long> timings = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Frame>> creating = ThreadLocal.withInitial(ArrayDeque::new);
+    private volatile Duration readyTime;
+
+    public StartupTimings(int top) {
+        this.top = top;
+    }
+
+    public Duration getReadyTime() {
+        return readyTime;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        if (readyTime == null) {
+            creating.get().push(new Frame(beanName));
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Deque<Frame> stack = creating.get();
+        // objects handed out by a FactoryBean come through here again under the factory's name
+        if (stack.stream().noneMatch(it -> it.name.equals(beanName))) {
+            return bean;
+        }
+        Frame frame = stack.pop();
+        while (!frame.name.equals(beanName)) {
+            // a bean whose creation was abandoned never reaches this callback
+            frame = stack.pop();
+        }
+        long elapsed = System.nanoTime() - frame.started;
+        timings.merge(beanName, elapsed - frame.dependencies, Long::sum);
+        if (!stack.isEmpty()) {
+            stack.peek().dependencies += elapsed;
+        }
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (readyTime != null) {
+            return;
+        }
+        readyTime = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+        creating.remove();
+        String slowest = timings.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(top)
+                .map(it -> String.format("%n  %8.1f ms  %s", it.getValue() / 1e6, it.getKey()))
+                .collect(Collectors.joining());
+        long total = timings.values().stream().mapToLong(Long::longValue).sum();
+        log.info("Ready {} ms after JVM start; {} beans created in {} ms, slowest:{}",
+                readyTime.toMillis(), timings.size(), total / 1_000_000, slowest);
+    }
+
+    private static class Frame {
+        private final String name;
+        private final long started = System.nanoTime();
+        private long dependencies;
+
+        private Frame(String name) {
+            this.name = name;
+        }
+    }
+}
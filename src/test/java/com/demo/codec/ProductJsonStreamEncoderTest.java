@@ -0,0 +1,63 @@
+package com.demo.codec;
+
+import com.demo.model.Product;
+import com.demo.model.ProductLookup;
+import com.demo.support.FlushPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductJsonStreamEncoderTest {
+
+    @Test
+    void batchesProductsUntilThreshold() {
+        ProductJsonStreamEncoder encoder = new ProductJsonStreamEncoder(new ObjectMapper(), 100,
+                new FlushPolicy(1000, Duration.ofSeconds(1), Duration.ofSeconds(1)));
+        Flux<Product> products = Flux.range(1, 10).map(i -> new Product(String.valueOf(i), "Item-" + i, "Category-1"));
+
+        List<String> chunks = encoder.encode(products, new DefaultDataBufferFactory(),
+                ResolvableType.forClass(Product.class), MediaType.APPLICATION_STREAM_JSON, Collections.emptyMap())
+                .map(this::toString)
+                .collectList()
+                .block();
+
+        assertEquals(5, chunks.size());
+        List<String> lines = chunks.stream()
+                .flatMap(chunk -> chunk.lines())
+                .collect(Collectors.toList());
+        assertEquals(10, lines.size());
+        assertEquals("{\"id\":\"1\",\"name\":\"Item-1\",\"category\":\"Category-1\",\"version\":null,\"lastModified\":null}", lines.get(0));
+    }
+
+    @Test
+    void streamsOnlyProductTypes() {
+        ProductJsonStreamEncoder encoder = new ProductJsonStreamEncoder(new ObjectMapper(), 100,
+                new FlushPolicy(1000, Duration.ofSeconds(1), Duration.ofSeconds(1)));
+
+        assertTrue(encoder.canEncode(ResolvableType.forClass(Product.class), MediaType.APPLICATION_STREAM_JSON));
+        assertTrue(encoder.canEncode(ResolvableType.forClass(ProductLookup.class), MediaType.APPLICATION_STREAM_JSON));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(Integer.class), MediaType.APPLICATION_STREAM_JSON));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(Product.class), MediaType.APPLICATION_JSON));
+    }
+
+    private String toString(DataBuffer buffer) {
+        String value = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return value;
+    }
+}
@@ -0,0 +1,54 @@
+package com.demo.codec;
+
+import com.demo.model.Product;
+import com.google.protobuf.CodedInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductProtobufEncoderTest {
+
+    private final ProductProtobufEncoder encoder = new ProductProtobufEncoder();
+
+    @Test
+    void streamIsLengthDelimited() throws IOException {
+        Flux<Product> products = Flux.just(new Product("1", "Item-1", "Category-1"), new Product("2", "Item-2", null));
+
+        byte[] bytes = DataBufferUtils.join(encoder.encode(products, new DefaultDataBufferFactory(),
+                ResolvableType.forClass(Product.class), ProductMediaTypes.APPLICATION_PROTOBUF, Collections.emptyMap()))
+                .map(buffer -> {
+                    byte[] result = new byte[buffer.readableByteCount()];
+                    buffer.read(result);
+                    return result;
+                })
+                .block();
+
+        CodedInputStream in = CodedInputStream.newInstance(bytes);
+        assertEquals("Item-1", readName(in));
+        assertEquals("Item-2", readName(in));
+        assertTrue(in.isAtEnd());
+    }
+
+    private String readName(CodedInputStream in) throws IOException {
+        int limit = in.pushLimit(in.readRawVarint32());
+        String name = null;
+        while (!in.isAtEnd()) {
+            int tag = in.readTag();
+            if (tag >>> 3 == 2) {
+                name = in.readString();
+            } else {
+                in.skipField(tag);
+            }
+        }
+        in.popLimit(limit);
+        return name;
+    }
+}
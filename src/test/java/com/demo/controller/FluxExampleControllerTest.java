@@ -1,9 +1,11 @@
 package com.demo.controller;
 
+import com.demo.support.SignalSampler;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -11,7 +13,8 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import java.time.Duration;
 
 @RunWith(SpringRunner.class)
-@WebFluxTest
+@WebFluxTest(FluxExampleController.class)
+@Import(SignalSampler.class)
 class FluxExampleControllerTest {
 
     @Autowired
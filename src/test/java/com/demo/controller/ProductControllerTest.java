@@ -0,0 +1,115 @@
+package com.demo.controller;
+
+import com.demo.codec.ProductMediaTypes;
+import com.demo.model.Product;
+import com.demo.model.ProductVersion;
+import com.demo.service.ProductBulkWriter;
+import com.demo.service.ProductChangeStream;
+import com.demo.service.ProductImporter;
+import com.demo.service.ProductService;
+import com.demo.service.ProductWriteBehind;
+import com.demo.support.PipelineMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ProductController.class)
+class ProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductBulkWriter productBulkWriter;
+
+    @MockBean
+    private ProductImporter productImporter;
+
+    @MockBean
+    private ProductChangeStream productChangeStream;
+
+    @MockBean
+    private ProductWriteBehind productWriteBehind;
+
+    @MockBean
+    private PipelineMetrics pipelineMetrics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        when(pipelineMetrics.instrument(anyString(), any(Mono.class))).thenAnswer(it -> it.getArgument(1));
+        when(productService.findVersion("1")).thenReturn(Mono.just(new ProductVersion("1", 1L, Instant.now())));
+        when(productService.findById("1")).thenReturn(Mono.just(new Product("1", "Item-1", "Category-1")));
+    }
+
+    @Test
+    void defaultAcceptGetsJson() {
+        webTestClient.get()
+                .uri("/v1/products/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.name").isEqualTo("Item-1");
+
+        webTestClient.get()
+                .uri("/v1/products/1")
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void recreatedProductDoesNotMatchOldETag() {
+        when(productService.findVersion("2")).thenReturn(
+                Mono.just(new ProductVersion("2", 1L, Instant.ofEpochMilli(1000))),
+                Mono.just(new ProductVersion("2", 1L, Instant.ofEpochMilli(2000))));
+        when(productService.findById("2")).thenReturn(Mono.just(new Product("2", "Item-2", "Category-1")));
+
+        String eTag = webTestClient.get()
+                .uri("/v1/products/2")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Product.class)
+                .getResponseHeaders().getETag();
+
+        // deleted and re-created: same version number, different document
+        String recreated = webTestClient.get()
+                .uri("/v1/products/2")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Product.class)
+                .getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri("/v1/products/2")
+                .ifNoneMatch(recreated)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void protobufOnlyWhenAskedFor() {
+        webTestClient.get()
+                .uri("/v1/products/1")
+                .accept(ProductMediaTypes.APPLICATION_PROTOBUF)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(ProductMediaTypes.APPLICATION_PROTOBUF);
+    }
+}
@@ -0,0 +1,35 @@
+package com.demo.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    void rejectsAboveLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 1_000_000, 0.5);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+    }
+
+    @Test
+    void slowCompletionsShrinkAndFastOnesGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 1_000_000, 0.5);
+
+        limit.tryAcquire();
+        limit.release(2_000_000, false);
+        assertEquals(4, limit.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.release(0, false);
+        }
+        assertEquals(7, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+}
@@ -0,0 +1,40 @@
+package com.demo.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    void rejectsOnceCapacityIsSpent() {
+        TokenBucket bucket = new TokenBucket(3, 0);
+
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void releaseReturnsTokenUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(1, 0);
+
+        assertTrue(bucket.tryAcquire());
+        bucket.release();
+        bucket.release();
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 100);
+
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        Thread.sleep(50);
+        assertTrue(bucket.tryAcquire());
+    }
+}
@@ -0,0 +1,175 @@
+package com.demo.load;
+
+import com.demo.model.Product;
+import com.demo.service.ProductBulkWriter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the product endpoints of a running application, backed by embedded Mongo, at a fixed
+ * arrival rate. Latency is measured from each request's scheduled start, so a stalled server
+ * shows up in the percentiles instead of silently slowing the generator down.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.data.mongodb.port=0", "product.limits.enabled=false"})
+class ProductLoadTest {
+
+    private static final int PRODUCTS = Integer.getInteger("load.products", 1000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+    private static final int RATE = Integer.getInteger("load.rate", 500);
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private static final long P99_BUDGET_MS = Long.getLong("load.p99-budget-ms", 1000);
+    private static final Path REPORT = Paths.get(System.getProperty("load.report", "target/load-report.txt"));
+
+    private static final Map<String, Result> results = new LinkedHashMap<>();
+    private static List<String> ids;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductBulkWriter productBulkWriter;
+
+    private WebClient client;
+
+    @BeforeEach
+    void setup() {
+        client = WebClient.create("http://localhost:" + port);
+        if (ids == null) {
+            ids = IntStream.range(0, PRODUCTS).mapToObj(i -> new ObjectId().toHexString()).collect(Collectors.toList());
+            productBulkWriter.write(Flux.fromIterable(ids).index()
+                            .map(it -> new Product(it.getT2(), "Item-" + it.getT1(), "Category-" + it.getT1() % 5)),
+                    ProductBulkWriter.Mode.INSERT, false)
+                    .blockLast();
+        }
+    }
+
+    @Test
+    void listProducts() {
+        run("GET /v1/products", () -> client.get().uri("/v1/products?limit=20")
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve().bodyToMono(String.class).then());
+    }
+
+    @Test
+    void getProduct() {
+        run("GET /v1/products/{id}", () -> client.get().uri("/v1/products/{id}", randomId())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve().bodyToMono(Product.class).then());
+    }
+
+    @Test
+    void streamProducts() {
+        run("GET /v1/products/stream", () -> client.get().uri("/v1/products/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve().bodyToFlux(Product.class).then());
+    }
+
+    @Test
+    void listProductsV2() {
+        run("GET /v2/products", () -> client.get().uri("/v2/products?limit=20")
+                .accept(MediaType.APPLICATION_STREAM_JSON)
+                .retrieve().bodyToMono(String.class).then());
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(REPORT))) {
+            out.printf("products=%d concurrency=%d rate=%d/s duration=%s%n%n", PRODUCTS, CONCURRENCY, RATE, DURATION);
+            results.forEach((name, result) -> result.print(name, out));
+        }
+    }
+
+    private void run(String name, Supplier<Mono<Void>> request) {
+        Result result = new Result();
+        long periodNanos = Duration.ofSeconds(1).toNanos() / RATE;
+        long start = System.nanoTime();
+
+        // a tick that finds every slot busy is dropped, and the run fails below rather than leaving
+        // the stall it hit out of the histogram
+        Flux.interval(Duration.ofNanos(periodNanos))
+                .take(DURATION)
+                .onBackpressureDrop(tick -> result.missed.incrementAndGet())
+                .flatMap(tick -> {
+                    // the time the tick was due, not the time it was handled
+                    long scheduled = start + (tick + 1) * periodNanos;
+                    return request.get()
+                            .doOnSuccess(it -> result.histogram.recordValue(System.nanoTime() - scheduled))
+                            .onErrorResume(error -> {
+                                result.errors.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, CONCURRENCY)
+                .blockLast(DURATION.plusMinutes(1));
+        result.elapsedNanos = System.nanoTime() - start;
+
+        synchronized (results) {
+            results.put(name, result);
+        }
+        assertEquals(0, result.errors.get(), name + " errors");
+        assertEquals(0, result.missed.get(), name + " requests not sent on schedule, raise load.concurrency");
+        assertTrue(result.histogram.getValueAtPercentile(99) <= Duration.ofMillis(P99_BUDGET_MS).toNanos(),
+                name + " p99 over budget");
+    }
+
+    private String randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static class Result {
+        private final Histogram histogram = new ConcurrentHistogram(3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong missed = new AtomicLong();
+        private long elapsedNanos;
+
+        private void print(String name, PrintStream out) {
+            double seconds = elapsedNanos / 1e9;
+            out.printf("%s%n", name);
+            out.printf("  requests=%d errors=%d missed=%d throughput=%.1f/s%n",
+                    histogram.getTotalCount(), errors.get(), missed.get(), histogram.getTotalCount() / seconds);
+            out.printf("  p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+            histogram.outputPercentileDistribution(out, 1_000_000.0);
+            out.println();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
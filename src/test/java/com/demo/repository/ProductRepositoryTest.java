@@ -0,0 +1,65 @@
+package com.demo.repository;
+
+import com.demo.model.Product;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataMongoTest
+class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReactiveMongoOperations reactiveMongoOperations;
+
+    @Test
+    void insertStartsAtVersionOne() {
+        StepVerifier.create(productRepository.save(new Product(null, "Item-1", "Category-1")))
+                .assertNext(saved -> {
+                    assertNotNull(saved.getId());
+                    assertEquals(1L, saved.getVersion());
+                    assertNotNull(saved.getLastModified());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void saveWithNewIdUpsertsAtVersionOne() {
+        String id = new ObjectId().toHexString();
+
+        StepVerifier.create(productRepository.save(new Product(id, "Item-1", "Category-1")))
+                .assertNext(saved -> {
+                    assertEquals(id, saved.getId());
+                    assertEquals(1L, saved.getVersion());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void updateIncrementsVersionAndRemovesClearedFields() {
+        Product inserted = productRepository.save(new Product(null, "Item-1", "Category-1")).block();
+
+        StepVerifier.create(productRepository.save(new Product(inserted.getId(), "Item-1b", null)))
+                .assertNext(saved -> {
+                    assertEquals(2L, saved.getVersion());
+                    assertEquals("Item-1b", saved.getName());
+                    assertNull(saved.getCategory());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(reactiveMongoOperations.findById(new ObjectId(inserted.getId()), Document.class, "Products"))
+                .assertNext(stored -> assertFalse(stored.containsKey("category")))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,58 @@
+package com.demo.repository;
+
+import com.demo.model.Product;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ProductUpdatesTest {
+
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setup() {
+        converter = new MappingMongoConverter(mock(DbRefResolver.class), new MongoMappingContext());
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void setsPresentFieldsUnsetsNullOnesAndIncrementsVersion() {
+        Product product = new Product(new ObjectId().toHexString(), "Item-1", null, 3L, Instant.ofEpochMilli(1000));
+        Document fields = new Document();
+        converter.write(product, fields);
+
+        Document update = ProductUpdates.replaceAndIncrementVersion(converter, fields);
+
+        Document set = update.get("$set", Document.class);
+        assertEquals("Item-1", set.get("name"));
+        assertTrue(set.containsKey("lastModified"));
+        assertFalse(set.containsKey("_id"));
+        assertFalse(set.containsKey("version"));
+        assertEquals(new Document("category", ""), update.get("$unset"));
+        assertEquals(new Document("version", 1L), update.get("$inc"));
+        // the caller still needs the id for the filter
+        assertTrue(fields.containsKey("_id"));
+    }
+
+    @Test
+    void omitsUnsetWhenAllFieldsArePresent() {
+        Product product = new Product(new ObjectId().toHexString(), "Item-1", "Category-1", null, Instant.ofEpochMilli(1000));
+        Document fields = new Document();
+        converter.write(product, fields);
+
+        Document update = ProductUpdates.replaceAndIncrementVersion(converter, fields);
+
+        assertFalse(update.containsKey("$unset"));
+    }
+}
@@ -0,0 +1,180 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.BulkResult;
+import com.demo.model.Product;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveCollectionCallback;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkWriterTest {
+
+    @Mock
+    private ReactiveMongoOperations reactiveMongoOperations;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Spy
+    private ProductProperties productProperties = new ProductProperties();
+
+    @InjectMocks
+    private ProductBulkWriter productBulkWriter;
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        MappingMongoConverter converter = new MappingMongoConverter(mock(DbRefResolver.class), new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(reactiveMongoOperations.getConverter()).thenReturn(converter);
+        when(reactiveMongoOperations.execute(eq(Product.class), any(ReactiveCollectionCallback.class)))
+                .thenAnswer(it -> Flux.from(it.<ReactiveCollectionCallback<?>>getArgument(1).doInCollection(collection)));
+        productProperties.getBulk().setBatchSize(3);
+        productProperties.getBulk().setConcurrency(4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void splitsIntoIndexedBatches() {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(it -> {
+            List<WriteModel<Document>> models = it.getArgument(0);
+            batchSizes.add(models.size());
+            return Mono.just(inserted(models.size()));
+        });
+
+        StepVerifier.create(productBulkWriter.write(products(7), ProductBulkWriter.Mode.INSERT, false))
+                .expectNext(new BulkResult(0, 3, 3, 0, 0, 0, null))
+                .expectNext(new BulkResult(1, 3, 3, 0, 0, 0, null))
+                .expectNext(new BulkResult(2, 1, 1, 0, 0, 0, null))
+                .verifyComplete();
+
+        assertEquals(List.of(3, 3, 1), batchSizes);
+        verify(productCache, times(7)).invalidate(any());
+    }
+
+    @Test
+    void orderedWritesOneBatchAtATime() {
+        assertEquals(1, maxConcurrentBatches(true));
+    }
+
+    @Test
+    void unorderedWritesUpToConcurrencyBatches() {
+        assertEquals(4, maxConcurrentBatches(false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void orderedWriteStopsAtFirstFailedBatch() {
+        AtomicInteger calls = new AtomicInteger();
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(it -> {
+            List<WriteModel<Document>> models = it.getArgument(0);
+            if (calls.getAndIncrement() == 1) {
+                // the first two documents of the second batch went in, the third was a duplicate
+                BulkWriteError duplicate = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 2);
+                return Mono.error(new MongoBulkWriteException(inserted(2), List.of(duplicate), null, new ServerAddress()));
+            }
+            return Mono.just(inserted(models.size()));
+        });
+
+        StepVerifier.create(productBulkWriter.write(products(7), ProductBulkWriter.Mode.INSERT, true))
+                .expectNext(new BulkResult(0, 3, 3, 0, 0, 0, null))
+                .assertNext(result -> {
+                    assertEquals(1, result.getBatch());
+                    assertEquals(3, result.getSize());
+                    assertEquals(2, result.getInserted());
+                    assertTrue(result.getError().contains("duplicate key"));
+                })
+                .verifyComplete();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void unorderedWriteReportsFailedBatchAndContinues() {
+        AtomicInteger calls = new AtomicInteger();
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(it -> {
+            List<WriteModel<Document>> models = it.getArgument(0);
+            if (calls.getAndIncrement() == 1) {
+                return Mono.error(new IllegalStateException("connection reset"));
+            }
+            return Mono.just(inserted(models.size()));
+        });
+
+        StepVerifier.create(productBulkWriter.write(products(7), ProductBulkWriter.Mode.INSERT, false))
+                .expectNext(new BulkResult(0, 3, 3, 0, 0, 0, null))
+                .expectNext(new BulkResult(1, 3, 0, 0, 0, 0, "connection reset"))
+                .expectNext(new BulkResult(2, 1, 1, 0, 0, 0, null))
+                .verifyComplete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int maxConcurrentBatches(boolean ordered) {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(it -> {
+            List<WriteModel<Document>> models = it.getArgument(0);
+            return Mono.delay(Duration.ofMillis(50))
+                    .map(tick -> inserted(models.size()))
+                    .doOnSubscribe(subscription -> max.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+
+        StepVerifier.create(productBulkWriter.write(products(24), ProductBulkWriter.Mode.INSERT, ordered))
+                .expectNextCount(8)
+                .verifyComplete();
+        return max.get();
+    }
+
+    private static Flux<Product> products(int count) {
+        return Flux.range(1, count).map(i -> new Product(new ObjectId().toHexString(), "Item-" + i, "Category-1"));
+    }
+
+    private static BulkWriteResult inserted(int count) {
+        return BulkWriteResult.acknowledged(count, 0, 0, 0, Collections.emptyList());
+    }
+}
@@ -0,0 +1,77 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.Product;
+import com.demo.model.ProductVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, Mono<Product>> loader = id -> Mono.fromCallable(() -> {
+        loads.incrementAndGet();
+        return new Product(id, "Item-" + id, "Category-1");
+    }).delayElement(Duration.ofMillis(100));
+
+    @Test
+    void concurrentMissesShareOneLoad() {
+        ProductCache cache = new ProductCache(new ProductProperties(), new SimpleMeterRegistry());
+
+        StepVerifier.create(Mono.zip(cache.get("1", loader), cache.get("1", loader)))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(cache.get("1", loader))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        ProductCache cache = new ProductCache(new ProductProperties(), new SimpleMeterRegistry());
+
+        cache.get("1", loader).block();
+        cache.invalidate("1");
+        cache.get("1", loader).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateDropsCachedVersion() {
+        ProductCache cache = new ProductCache(new ProductProperties(), new SimpleMeterRegistry());
+        AtomicLong version = new AtomicLong(1);
+        Function<String, Mono<ProductVersion>> versionLoader = id -> Mono.fromCallable(
+                () -> new ProductVersion(id, version.get(), Instant.EPOCH));
+
+        assertEquals(1L, cache.getVersion("1", versionLoader).block().getVersion());
+        version.incrementAndGet();
+        assertEquals(1L, cache.getVersion("1", versionLoader).block().getVersion());
+        cache.invalidate("1");
+        assertEquals(2L, cache.getVersion("1", versionLoader).block().getVersion());
+    }
+
+    @Test
+    void missingProductIsNotCached() {
+        ProductCache cache = new ProductCache(new ProductProperties(), new SimpleMeterRegistry());
+        AtomicInteger misses = new AtomicInteger();
+
+        cache.get("1", id -> Mono.fromRunnable(misses::incrementAndGet)).block();
+        cache.get("1", id -> Mono.fromRunnable(misses::incrementAndGet)).block();
+
+        assertEquals(2, misses.get());
+    }
+}
@@ -0,0 +1,57 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.ImportProgress;
+import com.demo.model.Product;
+import com.demo.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImporterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private ProductProperties productProperties = new ProductProperties();
+
+    @InjectMocks
+    private ProductImporter productImporter;
+
+    @Test
+    void parsesLinesSplitAcrossBuffers() {
+        when(productRepository.save(any(Product.class))).thenAnswer(it -> Mono.just(it.getArgument(0)));
+
+        Flux<DataBuffer> body = Flux.just(
+                "{\"name\":\"Item-1\",\"category\":\"Cat",
+                "egory-1\"}\n{\"name\":\"Item-2\"}\nnot-json\n",
+                "{\"name\":\"Item-3\"}")
+                .map(chunk -> new DefaultDataBufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+
+        StepVerifier.create(productImporter.importProducts(body))
+                .expectNext(new ImportProgress(3, 3, 1))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,155 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.Product;
+import com.demo.model.ProductLookup;
+import com.demo.model.ProductSummary;
+import com.demo.model.ProductVersion;
+import com.demo.repository.ProductRepository;
+import com.demo.support.ExecutionStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Spy
+    private ProductProperties productProperties = new ProductProperties();
+
+    @Mock
+    private ProductWriteBehind productWriteBehind;
+
+    @Spy
+    private ExecutionStrategy executionStrategy = new ExecutionStrategy(new ProductProperties());
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    void firstPageHasNextCursor() {
+        when(productRepository.findAllByOrderByIdAsc(PageRequest.of(0, 3), Product.class))
+                .thenReturn(Flux.just(product("1"), product("2"), product("3")));
+
+        StepVerifier.create(productService.findPage(null, null, 2))
+                .assertNext(page -> {
+                    assertEquals(2, page.getContent().size());
+                    assertEquals("2", page.getNext());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(productRepository.findByIdGreaterThanOrderByIdAsc("2", PageRequest.of(0, 3), Product.class))
+                .thenReturn(Flux.just(product("3")));
+
+        StepVerifier.create(productService.findPage(null, "2", 2))
+                .assertNext(page -> {
+                    assertEquals(1, page.getContent().size());
+                    assertNull(page.getNext());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void limitIsCappedAtMaxSize() {
+        productProperties.getPage().setMaxSize(5);
+        when(productRepository.findAllByOrderByIdAsc(PageRequest.of(0, 6), Product.class))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(productService.findPage(null, null, 1000))
+                .assertNext(page -> assertEquals(0, page.getContent().size()))
+                .verifyComplete();
+    }
+
+    @Test
+    void categoryPageUsesCategoryQuery() {
+        when(productRepository.findByCategoryAndIdGreaterThanOrderByIdAsc("Category-1", "1", PageRequest.of(0, 3), Product.class))
+                .thenReturn(Flux.just(product("2")));
+
+        StepVerifier.create(productService.findPage("Category-1", "1", 2))
+                .assertNext(page -> {
+                    assertEquals("2", page.getContent().get(0).getId());
+                    assertNull(page.getNext());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void summaryFieldsUseProjection() {
+        when(productRepository.findAllByOrderByIdAsc(PageRequest.of(0, 3), ProductSummary.class))
+                .thenReturn(Flux.just(new ProductSummary("1", "Item-1")));
+
+        StepVerifier.create(productService.findPage(null, null, 2, Set.of("name", "id")))
+                .assertNext(page -> assertEquals(new ProductSummary("1", "Item-1"), page.getContent().get(0)))
+                .verifyComplete();
+    }
+
+    @Test
+    void unsupportedFieldsAreRejected() {
+        StepVerifier.create(productService.findPage(null, null, 2, Set.of("category")))
+                .expectError(ServerWebInputException.class)
+                .verify();
+    }
+
+    @Test
+    void batchGetKeepsRequestOrderAndReportsMisses() {
+        when(productRepository.findAllById(List.of("1", "2", "3")))
+                .thenReturn(Flux.just(product("3"), product("1")));
+
+        StepVerifier.create(productService.findAllById(List.of("1", "2", "3", "1")))
+                .expectNext(new ProductLookup("1", true, product("1")))
+                .expectNext(new ProductLookup("2", false, null))
+                .expectNext(new ProductLookup("3", true, product("3")))
+                .expectNext(new ProductLookup("1", true, product("1")))
+                .verifyComplete();
+    }
+
+    @Test
+    void batchGetRejectsTooManyIds() {
+        productProperties.getBatchGet().setMaxIds(2);
+
+        StepVerifier.create(productService.findAllById(List.of("1", "2", "3")))
+                .expectError(ServerWebInputException.class)
+                .verify();
+    }
+
+    @Test
+    void pendingWriteBehindValueIsServedBeforeMongo() {
+        Product pending = new Product("1", "Item-1", "Category-2", 3L, Instant.ofEpochMilli(1000));
+        when(productWriteBehind.pending("1")).thenReturn(Mono.just(pending));
+
+        StepVerifier.create(productService.findById("1"))
+                .expectNext(pending)
+                .verifyComplete();
+        StepVerifier.create(productService.findVersion("1"))
+                .expectNext(new ProductVersion("1", 3L, Instant.ofEpochMilli(1000)))
+                .verifyComplete();
+        verifyNoInteractions(productRepository);
+    }
+
+    private Product product(String id) {
+        return new Product(id, "Item-" + id, "Category-1");
+    }
+}
@@ -0,0 +1,138 @@
+package com.demo.service;
+
+import com.demo.config.ProductProperties;
+import com.demo.model.BulkResult;
+import com.demo.model.Product;
+import com.demo.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductWriteBehindTest {
+
+    @Mock
+    private ProductBulkWriter productBulkWriter;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final ProductProperties productProperties = new ProductProperties();
+    private final List<Product> written = new CopyOnWriteArrayList<>();
+    private Duration writeDelay = Duration.ZERO;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(productBulkWriter.write(any(), eq(ProductBulkWriter.Mode.UPSERT), eq(false))).thenAnswer(it ->
+                Mono.delay(writeDelay).then(((Flux<Product>) it.getArgument(0)).collectList())
+                        .doOnNext(written::addAll)
+                        .map(batch -> new BulkResult(0, batch.size(), 0, 0, 0, batch.size(), null))
+                        .flux());
+    }
+
+    @Test
+    void repeatedUpdatesCollapseToLastValue() {
+        when(productRepository.findById("1")).thenReturn(Mono.just(new Product("1", "Item-1", "Category-2", 2L, Instant.now())));
+        ProductWriteBehind writeBehind = new ProductWriteBehind(productProperties, productBulkWriter, productRepository, new SimpleMeterRegistry());
+
+        Mono<Product> first = writeBehind.enqueue(new Product("1", "Item-1", "Category-1"));
+        Mono<Product> second = writeBehind.enqueue(new Product("1", "Item-1", "Category-2"));
+        writeBehind.flush().block();
+
+        // both callers get the stored document, version included
+        StepVerifier.create(Mono.zip(first, second))
+                .assertNext(acks -> {
+                    assertEquals(2L, acks.getT1().getVersion());
+                    assertEquals("Category-2", acks.getT2().getCategory());
+                })
+                .verifyComplete();
+        assertEquals(1, written.size());
+        assertEquals("Category-2", written.get(0).getCategory());
+    }
+
+    @Test
+    void ackOnEnqueueDoesNotWaitForFlush() {
+        productProperties.getWriteBehind().setDurability(ProductProperties.Durability.ACK_ON_ENQUEUE);
+        ProductWriteBehind writeBehind = new ProductWriteBehind(productProperties, productBulkWriter, productRepository, new SimpleMeterRegistry());
+
+        StepVerifier.create(writeBehind.enqueue(new Product("1", "Item-1", "Category-1")))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(0, written.size());
+
+        writeBehind.stop();
+        assertEquals(1, written.size());
+    }
+
+    @Test
+    void pendingValueIsReadableUntilWritten() {
+        productProperties.getWriteBehind().setDurability(ProductProperties.Durability.ACK_ON_ENQUEUE);
+        writeDelay = Duration.ofMillis(200);
+        ProductWriteBehind writeBehind = new ProductWriteBehind(productProperties, productBulkWriter, productRepository, new SimpleMeterRegistry());
+
+        writeBehind.enqueue(new Product("1", "Item-1", "Category-2")).block();
+        StepVerifier.create(writeBehind.pending("1").map(Product::getCategory)).expectNext("Category-2").verifyComplete();
+
+        Mono<Void> flush = writeBehind.flush().cache();
+        flush.subscribe();
+        StepVerifier.create(writeBehind.pending("1").map(Product::getCategory)).expectNext("Category-2").verifyComplete();
+
+        flush.block();
+        StepVerifier.create(writeBehind.pending("1")).verifyComplete();
+    }
+
+    @Test
+    void stopLetsRunningFlushFinish() {
+        productProperties.getWriteBehind().setEnabled(true);
+        productProperties.getWriteBehind().setFlushInterval(Duration.ofMillis(10));
+        writeDelay = Duration.ofMillis(200);
+        when(productRepository.findById("1")).thenReturn(Mono.just(new Product("1", "Item-1", "Category-1", 1L, Instant.now())));
+        ProductWriteBehind writeBehind = new ProductWriteBehind(productProperties, productBulkWriter, productRepository, new SimpleMeterRegistry());
+        writeBehind.start();
+
+        Mono<Product> ack = writeBehind.enqueue(new Product("1", "Item-1", "Category-1"));
+        verify(productBulkWriter, timeout(1000)).write(any(), eq(ProductBulkWriter.Mode.UPSERT), eq(false));
+        writeBehind.stop();
+
+        assertEquals(1, written.size());
+        StepVerifier.create(ack).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void fullBufferWaitsForRunningFlush() {
+        productProperties.getWriteBehind().setMaxPending(1);
+        productProperties.getWriteBehind().setDurability(ProductProperties.Durability.ACK_ON_ENQUEUE);
+        writeDelay = Duration.ofMillis(200);
+        ProductWriteBehind writeBehind = new ProductWriteBehind(productProperties, productBulkWriter, productRepository, new SimpleMeterRegistry());
+
+        writeBehind.enqueue(new Product("1", "Item-1", "Category-1")).block();
+        writeBehind.enqueue(new Product("2", "Item-2", "Category-1")).block();
+        StepVerifier.create(writeBehind.enqueue(new Product("3", "Item-3", "Category-1")))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        writeBehind.stop();
+        assertEquals(3, written.size());
+    }
+}
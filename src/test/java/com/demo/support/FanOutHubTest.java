@@ -0,0 +1,44 @@
+package com.demo.support;
+
+import com.demo.config.ProductProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.DirectProcessor;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FanOutHubTest {
+
+    @Test
+    void slowSubscriberOnlyKeepsItsOwnBuffer() {
+        DirectProcessor<Integer> source = DirectProcessor.create();
+        FanOutHub<Integer> hub = new FanOutHub<>("test", source, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        StepVerifier.create(hub.subscribe(ProductProperties.Overflow.BUFFER, 2), 0)
+                .then(() -> {
+                    source.onNext(1);
+                    source.onNext(2);
+                    source.onNext(3);
+                })
+                .then(() -> assertEquals(1, hub.connections().get(0).getDropped()))
+                .thenRequest(2)
+                .expectNext(2, 3)
+                .thenCancel()
+                .verify();
+
+        assertEquals(0, hub.connections().size());
+    }
+
+    @Test
+    void stalledSubscriberIsEvicted() {
+        DirectProcessor<Integer> source = DirectProcessor.create();
+        FanOutHub<Integer> hub = new FanOutHub<>("test", source, Duration.ZERO, new SimpleMeterRegistry());
+
+        StepVerifier.create(hub.subscribe(ProductProperties.Overflow.DROP, 1), 0)
+                .then(() -> source.onNext(1))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,88 @@
+package com.demo.support;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FlushPolicyTest {
+
+    @Test
+    void denseStreamIsFlushedEveryMaxElements() {
+        FlushPolicy policy = new FlushPolicy(4, Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        StepVerifier.create(policy.apply(Flux.range(1, 10)))
+                .expectNext(List.of(1, 2, 3, 4), List.of(5, 6, 7, 8), List.of(9, 10))
+                .verifyComplete();
+    }
+
+    @Test
+    void emitsOneBatchPerRequestAndAsksUpstreamForOneBatch() {
+        List<Long> upstreamRequests = new CopyOnWriteArrayList<>();
+        FlushPolicy policy = new FlushPolicy(4, Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        StepVerifier.create(policy.apply(Flux.range(1, 100).doOnRequest(upstreamRequests::add)), 0)
+                .thenRequest(1)
+                .expectNext(List.of(1, 2, 3, 4))
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(1)
+                .expectNext(List.of(5, 6, 7, 8))
+                .thenCancel()
+                .verify();
+
+        assertEquals(List.of(4L, 4L), upstreamRequests);
+    }
+
+    @Test
+    void dueBatchWaitsForRequest() {
+        StepVerifier.withVirtualTime(() -> {
+            FlushPolicy policy = new FlushPolicy(3, Duration.ofMillis(50), Duration.ofMillis(10), VirtualTimeScheduler.get());
+            return policy.apply(Flux.interval(Duration.ofMillis(100)).take(3));
+        }, 0)
+                .expectSubscription()
+                .thenRequest(1)
+                .thenAwait(Duration.ofMillis(110))
+                .expectNext(List.of(0L))
+                // the remaining ticks arrive and go idle, but nothing was requested
+                .expectNoEvent(Duration.ofSeconds(1))
+                .thenRequest(1)
+                .expectNext(List.of(1L, 2L))
+                .verifyComplete();
+    }
+
+    @Test
+    void sparseStreamIsFlushedWhenIdle() {
+        StepVerifier.withVirtualTime(() -> {
+            FlushPolicy policy = new FlushPolicy(100, Duration.ofMillis(50), Duration.ofMillis(1), VirtualTimeScheduler.get());
+            return policy.apply(Flux.interval(Duration.ofSeconds(1)).take(3));
+        })
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(1001))
+                .expectNext(List.of(0L))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(List.of(1L))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(List.of(2L))
+                .verifyComplete();
+    }
+
+    @Test
+    void steadyStreamIsFlushedAfterMaxDelay() {
+        StepVerifier.withVirtualTime(() -> {
+            FlushPolicy policy = new FlushPolicy(100, Duration.ofMillis(45), Duration.ofMillis(20), VirtualTimeScheduler.get());
+            return policy.apply(Flux.interval(Duration.ofMillis(10)).take(8));
+        })
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(60))
+                .expectNext(List.of(0L, 1L, 2L, 3L, 4L))
+                .thenAwait(Duration.ofMillis(30))
+                .expectNext(List.of(5L, 6L, 7L))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,38 @@
+package com.demo.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PipelineMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PipelineMetrics pipelineMetrics = new PipelineMetrics(meterRegistry);
+
+    @Test
+    void recordsElementsDemandAndOutcome() {
+        StepVerifier.create(pipelineMetrics.instrument("numbers", Flux.range(1, 5)), 2)
+                .expectNextCount(2)
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+
+        assertEquals(5, meterRegistry.get("pipeline.requested").tag("pipeline", "numbers").counter().count());
+        assertEquals(5, meterRegistry.get("pipeline.elements").tag("pipeline", "numbers").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("pipeline.duration").tags("pipeline", "numbers", "outcome", "complete").timer().count());
+        assertEquals(1, meterRegistry.get("pipeline.first.element").tag("pipeline", "numbers").timer().count());
+    }
+
+    @Test
+    void recordsCancellation() {
+        StepVerifier.create(pipelineMetrics.instrument("numbers", Flux.never()))
+                .thenCancel()
+                .verify();
+
+        assertEquals(1, meterRegistry.get("pipeline.duration").tags("pipeline", "numbers", "outcome", "cancel").timer().count());
+        assertEquals(0, meterRegistry.get("pipeline.active").tag("pipeline", "numbers").gauge().value());
+    }
+}
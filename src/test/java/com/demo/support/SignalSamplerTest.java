@@ -0,0 +1,61 @@
+package com.demo.support;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.demo.config.ProductProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SignalSamplerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("diagnostics.test");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attach() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detach() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+    }
+
+    @Test
+    void silentUnlessRouteIsAtDebug() {
+        logger.setLevel(Level.INFO);
+
+        StepVerifier.create(sampler(10).sample("test", Flux.range(1, 100)))
+                .expectNextCount(100)
+                .verifyComplete();
+
+        assertEquals(0, appender.list.size());
+    }
+
+    @Test
+    void logsOneInNAndSummary() {
+        logger.setLevel(Level.DEBUG);
+
+        StepVerifier.create(sampler(10).sample("test", Flux.range(1, 100)))
+                .expectNextCount(100)
+                .verifyComplete();
+
+        assertEquals(11, appender.list.size());
+    }
+
+    private SignalSampler sampler(int sampleRate) {
+        ProductProperties productProperties = new ProductProperties();
+        productProperties.getDiagnostics().setSampleRate(sampleRate);
+        return new SignalSampler(productProperties);
+    }
+}
@@ -0,0 +1,47 @@
+package com.demo.support;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Function<String, Mono<String>> loader = key -> Mono.fromCallable(() -> key + calls.incrementAndGet())
+            .delayElement(Duration.ofMillis(100));
+
+    @Test
+    void concurrentCallsShareOneUpstream() {
+        StepVerifier.create(Mono.zip(singleFlight.execute("a", loader), singleFlight.execute("a", loader)))
+                .assertNext(it -> assertEquals(it.getT1(), it.getT2()))
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    void completedCallIsNotReused() {
+        singleFlight.execute("a", loader).block();
+        singleFlight.execute("a", loader).block();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void cancelledCallerDoesNotCancelOthers() {
+        Mono<String> first = singleFlight.execute("a", loader);
+
+        StepVerifier.create(first).thenCancel().verify();
+        StepVerifier.create(singleFlight.execute("a", loader))
+                .expectNext("a1")
+                .verifyComplete();
+    }
+}